@@ -4,18 +4,28 @@ package cs3500.animator;
 import java.awt.*;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 
 import cs3500.animator.controller.IInteractiveController;
 import cs3500.animator.controller.InteractiveController;
+import cs3500.animator.model.AnimationFileFollower;
 import cs3500.animator.model.AnimationFileReader;
 import cs3500.animator.model.AnimationModel;
+import cs3500.animator.model.AnimationScene;
+import cs3500.animator.model.BinaryAnimationWriter;
 import cs3500.animator.model.IAnimationModel;
+import cs3500.animator.model.ReaderOptions;
 import cs3500.animator.model.animation.IAnimation;
 import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.util.SvgFormat;
 import cs3500.animator.provider.controller.ControllerAdapter;
 import cs3500.animator.provider.controller.IController;
 import cs3500.animator.provider.model.ModelAdaptor;
@@ -39,6 +49,17 @@ public final class EasyAnimator {
     String inputView = null;
     String output = null;
     String speed = null;
+    boolean memoryMapped = false;
+    boolean compact = false;
+    String parallelism = null;
+    String svgParallelism = null;
+    boolean svgMergeKeyframes = false;
+    String svgPrecision = null;
+    String watch = null;
+    String shapes = null;
+    String shapePattern = null;
+    String layers = null;
+    String window = null;
     int rate;
     JFrame frame = new JFrame();
 
@@ -60,6 +81,39 @@ public final class EasyAnimator {
         case "-speed":
           speed = arg;
           break;
+        case "-mmap":
+          memoryMapped = Boolean.parseBoolean(arg);
+          break;
+        case "-compact":
+          compact = Boolean.parseBoolean(arg);
+          break;
+        case "-parallel":
+          parallelism = arg;
+          break;
+        case "-svg-parallel":
+          svgParallelism = arg;
+          break;
+        case "-svg-merge":
+          svgMergeKeyframes = Boolean.parseBoolean(arg);
+          break;
+        case "-svg-minify":
+          svgPrecision = arg;
+          break;
+        case "-watch":
+          watch = arg;
+          break;
+        case "-shapes":
+          shapes = arg;
+          break;
+        case "-shape-regex":
+          shapePattern = arg;
+          break;
+        case "-layers":
+          layers = arg;
+          break;
+        case "-window":
+          window = arg;
+          break;
         default:
           JOptionPane.showMessageDialog(frame, "Invalid arguments.");
           System.exit(1);
@@ -93,18 +147,118 @@ public final class EasyAnimator {
       }
     }
     AnimationFileReader reader = new AnimationFileReader();
+    reader.setMemoryMapped(memoryMapped);
+    if (parallelism != null) {
+      try {
+        reader.setParallelism(Integer.parseInt(parallelism));
+      } catch (IllegalArgumentException e) {
+        JOptionPane.showMessageDialog(frame, "Parallelism should be a positive integer.");
+        System.exit(1);
+        return;
+      }
+    }
+    ReaderOptions options = new ReaderOptions();
+    try {
+      if (shapes != null) {
+        options.setShapes(Arrays.asList(shapes.split(",")));
+      }
+      if (shapePattern != null) {
+        options.setShapePattern(shapePattern);
+      }
+      if (layers != null) {
+        List<Integer> layerList = new ArrayList<>();
+        for (String layer : layers.split(",")) {
+          layerList.add(Integer.parseInt(layer.trim()));
+        }
+        options.setLayers(layerList);
+      }
+      if (window != null) {
+        String[] ticks = window.split(",");
+        if (ticks.length != 2) {
+          throw new IllegalArgumentException("The window needs two ticks.");
+        }
+        options.setTickWindow(Integer.parseInt(ticks[0].trim()),
+                Integer.parseInt(ticks[1].trim()));
+      }
+    } catch (PatternSyntaxException e) {
+      JOptionPane.showMessageDialog(frame, "Invalid shape name pattern: " + e.getMessage());
+      System.exit(1);
+      return;
+    } catch (IllegalArgumentException e) {
+      JOptionPane.showMessageDialog(frame, "Layers should be integers separated by commas, and "
+              + "the window two ticks separated by a comma, the first not after the second.");
+      System.exit(1);
+      return;
+    }
+    reader.setOptions(options);
+    int interval = 0;
+    if (watch != null) {
+      try {
+        interval = Integer.parseInt(watch);
+      } catch (NumberFormatException e) {
+        interval = 0;
+      }
+      if (interval <= 0 || !inputView.equals("interactive") || inputFile.equals("-")) {
+        JOptionPane.showMessageDialog(frame, "Watch needs a positive interval in milliseconds, "
+                + "the interactive view and an input file.");
+        System.exit(1);
+        return;
+      }
+    }
+    AnimationFileFollower follower = new AnimationFileFollower(reader, inputFile);
     IAnimationModel<IAnimShape, IAnimation> model;
     float[] bg;
     try {
-      model = reader.readFile(inputFile, AnimationModel.builder());
-      bg = reader.getBackground(inputFile);
-
+      AnimationScene<IAnimationModel<IAnimShape, IAnimation>> scene;
+      // a compact model keeps its shapes in primitive arrays, for scenes with very many shapes
+      AnimationModel.Builder builder = compact ? AnimationModel.compactBuilder()
+              : AnimationModel.builder();
+      if (watch != null) {
+        scene = follower.readAppended(builder);
+      } else if (inputFile.equals("-")) {
+        // read from the standard input, e.g. when piped from zcat or a simulator
+        scene = reader.readScene(System.in, builder);
+      } else {
+        scene = reader.readScene(inputFile, builder);
+      }
+      model = scene.getModel();
+      bg = scene.getBackground();
     } catch (FileNotFoundException e) {
       JOptionPane.showMessageDialog(frame, "Input file not found.");
       System.exit(1);
       return;
     }
+    if (inputView.equals("binary")) {
+      try {
+        new BinaryAnimationWriter().addModel(model).setBackground(bg[0], bg[1], bg[2])
+                .writeTo(System.out);
+      } catch (IOException e) {
+        JOptionPane.showMessageDialog(frame, "Could not write the binary file.");
+        System.exit(1);
+      }
+      return;
+    }
     AnimationViewCreator viewCreator = new AnimationViewCreator(model, rate);
+    viewCreator.setSvgMergeKeyframes(svgMergeKeyframes);
+    if (svgPrecision != null) {
+      try {
+        viewCreator.setSvgFormat(SvgFormat.minified(Integer.parseInt(svgPrecision)));
+      } catch (IllegalArgumentException e) {
+        JOptionPane.showMessageDialog(frame, "Precision should be an integer between 0 and "
+                + SvgFormat.MAX_PRECISION + ".");
+        System.exit(1);
+        return;
+      }
+    }
+    if (svgParallelism != null) {
+      try {
+        viewCreator.setSvgParallelism(Integer.parseInt(svgParallelism));
+      } catch (IllegalArgumentException e) {
+        JOptionPane.showMessageDialog(frame, "Parallelism should be a positive integer.");
+        System.exit(1);
+        return;
+      }
+    }
     if (inputView.equals("provider")) {
       cs3500.animator.provider.model.IAnimationModel adapted = new ModelAdaptor(model);
       IView view = new HybridView(rate);
@@ -121,6 +275,9 @@ public final class EasyAnimator {
         //System.out.println(bg[0] + "," + bg[1] + "," + bg[2]);
         ((IInteractiveView) view).changeBGColor(new Color(bg[0], bg[1], bg[2]));
         IInteractiveController controller = new InteractiveController(model, (InteractiveView)view);
+        if (watch != null) {
+          controller.watch(follower, interval);
+        }
       }
     }
   }
@@ -1,5 +1,7 @@
 package cs3500.animator.controller;
 
+import cs3500.animator.model.AnimationFileFollower;
+
 /**
  * Controls any implementation of interactive views.
  */
@@ -29,4 +31,14 @@ public interface IInteractiveController<S> {
    * @return the buttonListener for this interactive controller.
    */
   IButtonListener getButtonListener();
+
+  /**
+   * Keeps adding the commands that are appended to the file the model was read from to the model,
+   * and updates the view whenever some were added.
+   *
+   * @param follower the follower of the file, which has read the model already
+   * @param interval the number of milliseconds between two checks of the file
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  void watch(AnimationFileFollower follower, int interval);
 }
@@ -2,6 +2,7 @@ package cs3500.animator.controller;
 
 import java.awt.*;
 
+import java.io.FileNotFoundException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
@@ -10,6 +11,9 @@ import javax.swing.*;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import cs3500.animator.model.AnimationFileFollower;
+import cs3500.animator.model.AnimationModel;
+import cs3500.animator.model.AnimationScene;
 import cs3500.animator.model.IAnimationModel;
 import cs3500.animator.model.animation.IAnimation;
 import cs3500.animator.model.shape.IAnimShape;
@@ -23,7 +27,7 @@ import cs3500.animator.view.InteractiveView;
  */
 public class InteractiveController
         implements IInteractiveController<InteractiveView.AnimationState> {
-  private IAnimationModel model;
+  private IAnimationModel<IAnimShape, IAnimation> model;
   private IInteractiveView<InteractiveView.AnimationState> view;
   private HashMap<String, IAnimShape> shapes;
   private ButtonListener buttonListener;
@@ -132,6 +136,66 @@ public class InteractiveController
     return view.getViewState();
   }
 
+  /**
+   * Checks the file for appended commands with a swing timer, so that the model only changes on the
+   * event dispatch thread, in between two frames.
+   */
+  @Override
+  public void watch(AnimationFileFollower follower, int interval) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be a positive integer.");
+    }
+    Timer watcher = new Timer(interval, null);
+    watcher.addActionListener(e -> this.readAppended(follower, watcher));
+    watcher.start();
+  }
+
+  /**
+   * Adds the commands appended to the file to the model, gives the new shapes their check box
+   * actions and updates the view. If the appended commands cannot be read, the user is told so and
+   * the file is still followed, but if the file itself cannot be read anymore it is not.
+   *
+   * @param follower the follower of the file
+   * @param watcher  the timer that checks the file
+   */
+  private void readAppended(AnimationFileFollower follower, Timer watcher) {
+    long offset = follower.getOffset();
+    AnimationScene<IAnimationModel<IAnimShape, IAnimation>> appended = null;
+    String error = null;
+    try {
+      appended = follower.readAppended(AnimationModel.builder(model));
+    } catch (FileNotFoundException e) {
+      error = "The animation file cannot be found anymore.";
+    } catch (RuntimeException e) {
+      error = "Could not read the appended commands: " + e.getMessage();
+    }
+    if (follower.getOffset() != offset) {
+      for (IAnimShape shape : model.getShapesList()) {
+        if (!shapes.containsKey(shape.getName())) {
+          shapes.put(shape.getName(), shape);
+          checkBoxListener.checkBoxListener.put(shape.getName(), () -> {
+            view.toggleShape(shapes.get(shape.getName()));
+            view.repaint();
+          });
+        }
+      }
+      if (appended != null && appended.hasBackground()) {
+        float[] bg = appended.getBackground();
+        view.changeBGColor(new Color(bg[0], bg[1], bg[2]));
+      }
+      view.modelChanged();
+    }
+    if (error != null) {
+      watcher.stop();
+      boolean readable = follower.getOffset() != offset;
+      JOptionPane.showMessageDialog(((InteractiveView) view).getContentPane(),
+              readable ? error : error + " The file is not followed anymore.");
+      if (readable) {
+        watcher.start();
+      }
+    }
+  }
+
   /**
    * Action to use when the Faster Button is pressed.
    */
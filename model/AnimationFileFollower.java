@@ -0,0 +1,165 @@
+package cs3500.animator.model;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.InputMismatchException;
+
+import cs3500.animator.model.util.TweenModelBuilder;
+
+/**
+ * Follows an animation file that is still being written to, the way tail -f follows a log. The
+ * follower remembers how far into the file it has read, and each call of readAppended only reads
+ * the commands that were appended since the last one, so that they can be added to a model that
+ * is already in use. Only whole lines are read, the first time as well, since the file may be in
+ * the middle of being written then too: a command that is not yet followed by a line break is left
+ * for a later call. Once the file is known to be complete, readToEnd also reads a last command
+ * that has no line break after it.
+ */
+public final class AnimationFileFollower {
+  private static final int WINDOW_SIZE = 1 << 16;
+
+  private final AnimationFileReader reader;
+  private final String fileName;
+  private long offset;
+  private TweenModelBuilder<?> selected;
+
+  /**
+   * Creates a follower of the given file that has not read anything of it yet.
+   *
+   * @param reader   the reader to read the commands with
+   * @param fileName the path of the file to follow
+   */
+  public AnimationFileFollower(AnimationFileReader reader, String fileName) {
+    this.reader = reader;
+    this.fileName = fileName;
+    this.offset = 0;
+    this.selected = null;
+  }
+
+  /**
+   * Gets the number of bytes of the file that have been read so far.
+   *
+   * @return the offset at which the next read starts
+   */
+  public long getOffset() {
+    return this.offset;
+  }
+
+  /**
+   * Reads the whole lines that were appended to the file since the last call, or all of the whole
+   * lines of the file on the first call, and gives their commands to the builder. To add them to a model that was read
+   * before, use a builder of that model. If a command cannot be read, the commands before it are
+   * kept and the lines read by this call are skipped by the next one. The options of the reader
+   * select what is read, the same way as when the file is read at once: the animations appended
+   * for a shape that was not selected before are not read either.
+   *
+   * @param builder the builder to give the commands to
+   * @param <T>     the type of model
+   * @return the built model along with the settings of the scene, such as the background color,
+   *         that were read by this call
+   * @throws FileNotFoundException  if the file cannot be read
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read, the file is a binary or gzip
+   *                                compressed animation file, or the file got shorter than what
+   *                                was read already
+   */
+  public <T> AnimationScene<T> readAppended(TweenModelBuilder<T> builder) throws
+          FileNotFoundException, IllegalStateException, InputMismatchException {
+    return this.read(builder, false);
+  }
+
+  /**
+   * Reads everything that was appended to the file since the last call, like readAppended, but
+   * also the last line if it has no line break after it. Only call this once the file is complete,
+   * e.g. after whatever wrote it has finished, since a command that is still being written would be
+   * read cut short.
+   *
+   * @param builder the builder to give the commands to
+   * @param <T>     the type of model
+   * @return the built model along with the settings of the scene, such as the background color,
+   *         that were read by this call
+   * @throws FileNotFoundException  if the file cannot be read
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read, the file is a binary or gzip
+   *                                compressed animation file, or the file got shorter than what
+   *                                was read already
+   */
+  public <T> AnimationScene<T> readToEnd(TweenModelBuilder<T> builder) throws
+          FileNotFoundException, IllegalStateException, InputMismatchException {
+    return this.read(builder, true);
+  }
+
+  /**
+   * Reads what was appended to the file since the last call and gives its commands to the builder.
+   *
+   * @param builder the builder to give the commands to
+   * @param toEnd   whether to read a last line that has no line break after it
+   * @param <T>     the type of model
+   * @return the built model along with the settings of the scene read by this call
+   * @throws FileNotFoundException if the file cannot be read
+   */
+  private <T> AnimationScene<T> read(TweenModelBuilder<T> builder, boolean toEnd) throws
+          FileNotFoundException {
+    try (FileChannel channel = new RandomAccessFile(this.fileName, "r").getChannel()) {
+      long start = this.offset;
+      long size = channel.size();
+      if (size < start) {
+        throw new IllegalStateException("The animation file got shorter than what was read.");
+      }
+      if (start == 0) {
+        ByteBuffer first = AnimationFileReader.peek(channel, BinaryAnimationFormat.MAGIC.length);
+        if (BinaryAnimationFormat.startsWithMagic(first)) {
+          throw new IllegalStateException("Binary animation files cannot be followed.");
+        }
+        if (AnimationFileReader.isGzipped(first)) {
+          throw new IllegalStateException("Compressed animation files cannot be followed.");
+        }
+      }
+      long end = toEnd ? size : endOfLastLine(channel, start, size);
+      this.offset = end;
+      TweenModelBuilder<T> selected =
+              FilteringBuilder.of(builder, this.reader.getOptions(), this.selected);
+      this.selected = selected;
+      return this.reader.read(new AnimationTokenizer(channel, start, end), selected);
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the animation file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Finds the end of the last whole line of the given range of the file.
+   *
+   * @param channel the channel of the file
+   * @param start   the offset of the start of the range
+   * @param end     the offset just past the end of the range
+   * @return the offset just past the last line break in the range, or start if there is none
+   * @throws IOException if the file cannot be read
+   */
+  private static long endOfLastLine(FileChannel channel, long start, long end)
+          throws IOException {
+    ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+    long to = end;
+    while (to > start) {
+      long from = Math.max(start, to - WINDOW_SIZE);
+      window.clear();
+      window.limit((int) (to - from));
+      while (window.hasRemaining()) {
+        if (channel.read(window, from + window.position()) < 0) {
+          break;
+        }
+      }
+      for (int i = window.position() - 1; i >= 0; i--) {
+        if (window.get(i) == '\n') {
+          return from + i + 1;
+        }
+      }
+      to = from;
+    }
+    return start;
+  }
+}
@@ -1,11 +1,19 @@
 package cs3500.animator.model;
 
-import java.io.FileInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 import java.util.InputMismatchException;
-import java.util.Map;
-import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
 
 import cs3500.animator.model.util.TweenModelBuilder;
 import cs3500.animator.model.util.Util;
@@ -17,29 +25,96 @@ import cs3500.animator.model.util.Util;
  */
 
 public class AnimationFileReader {
+  /**
+   * The bytes every gzip file starts with.
+   */
+  private static final byte[] GZIP_MAGIC = {0x1f, (byte) 0x8b};
+  private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+  private boolean memoryMapped = false;
+  private int parallelism = 1;
+  private ReaderOptions options = null;
+
+  /**
+   * Sets whether files are memory mapped instead of read through a stream. Mapped files are read
+   * straight from the page cache without being copied onto the heap, in segments so that files
+   * larger than 2 GB can be read as well.
+   *
+   * @param memoryMapped whether to memory map the files that are read
+   */
+  public void setMemoryMapped(boolean memoryMapped) {
+    this.memoryMapped = memoryMapped;
+  }
+
+  /**
+   * Sets the number of threads files are read with. With more than one thread, files are always
+   * memory mapped, cut into chunks at the starts of commands and the chunks are read at the same
+   * time. The model is still built in file order.
+   *
+   * @param parallelism the number of threads to read with
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Sets which shapes and ticks of the files are read. The commands that are not selected are
+   * read past without anything being made for them, so that the time and memory it takes to read
+   * a file grow with the selection rather than with the file. The options apply to every way of
+   * reading a file, following one with an AnimationFileFollower included.
+   *
+   * @param options the options that select what to read, or null to read everything
+   */
+  public void setOptions(ReaderOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * Gets the options that select what is read.
+   *
+   * @return the options, or null if everything is read
+   */
+  ReaderOptions getOptions() {
+    return this.options;
+  }
 
   public float[] getBackground(String fileName) throws
           FileNotFoundException, IllegalStateException, InputMismatchException {
-    Scanner sc = new Scanner(new FileInputStream(fileName));
-    float[] toRet = new float[]{1, 1, 1};
-    while (sc.hasNext()) {
-      String command = sc.next();
-      if (command.equals("background")) {
-        String mode = sc.next();
-        if (mode.equals("name")) {
-
-          String next = sc.next();
-          toRet = Util.stringToColor(next).getColorComponents(null);
-          //System.out.println("toRet is " + toRet[0] + "," + toRet[1] + "," + toRet[2]);
-        } else if (mode.equals("rgb")) {
-          float r = sc.nextFloat();
-          float g = sc.nextFloat();
-          float b = sc.nextFloat();
-          toRet = new float[]{r, g, b};
+    try (FileChannel channel = new RandomAccessFile(fileName, "r").getChannel()) {
+      ByteBuffer start = peek(channel, BinaryAnimationFormat.MAGIC.length);
+      if (BinaryAnimationFormat.startsWithMagic(start)) {
+        return new BinaryAnimationReader().getBackground(channel);
+      }
+      float[] toRet = new float[]{1, 1, 1};
+      try (AnimationTokenizer sc = this.openText(channel, start)) {
+        while (sc.hasNext()) {
+          String command = sc.next();
+          if (command.equals("background")) {
+            String mode = sc.next();
+            if (mode.equals("name")) {
+
+              String next = sc.next();
+              toRet = Util.stringToColor(next).getColorComponents(null);
+              //System.out.println("toRet is " + toRet[0] + "," + toRet[1] + "," + toRet[2]);
+            } else if (mode.equals("rgb")) {
+              float r = sc.nextFloat();
+              float g = sc.nextFloat();
+              float b = sc.nextFloat();
+              toRet = new float[]{r, g, b};
+            }
+          }
         }
       }
+      return toRet;
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the animation file: " + e.getMessage());
     }
-    return toRet;
   }
 
   /**
@@ -55,91 +130,322 @@ public class AnimationFileReader {
    */
   public <T> T readFile(String fileName, TweenModelBuilder<T> builder) throws
           FileNotFoundException, IllegalStateException, InputMismatchException {
-    Scanner sc;
+    return readScene(fileName, builder).getModel();
+  }
+
+  /**
+   * Read the animation file once, using the builder to build a model and keeping the settings of
+   * the scene, such as the background color, that are read along the way. The file is opened
+   * once and its format is told from its first bytes: files in the binary animation format are
+   * read by a BinaryAnimationReader, and files compressed with gzip are read as streams.
+   *
+   * @param fileName the path of the file to be read
+   * @param builder  the builder used to build the model
+   * @param <T>      the type of model
+   * @return the model along with the settings of the scene
+   * @throws FileNotFoundException  if the specified file cannot be read
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read from the file
+   */
+  public <T> AnimationScene<T> readScene(String fileName, TweenModelBuilder<T> builder) throws
+          FileNotFoundException, IllegalStateException, InputMismatchException {
+    TweenModelBuilder<T> selected = FilteringBuilder.of(builder, this.options);
+    try (FileChannel channel = new RandomAccessFile(fileName, "r").getChannel()) {
+      ByteBuffer start = peek(channel, BinaryAnimationFormat.MAGIC.length);
+      if (BinaryAnimationFormat.startsWithMagic(start)) {
+        return new BinaryAnimationReader().read(channel, selected);
+      }
+      if (isGzipped(start)) {
+        return readStream(new GZIPInputStream(Channels.newInputStream(channel),
+                GZIP_BUFFER_SIZE), selected);
+      }
+      if (this.parallelism > 1) {
+        return new ParallelAnimationReader(this, this.parallelism).read(channel, selected);
+      }
+      try (AnimationTokenizer sc = this.openText(channel, start)) {
+        return read(sc, selected);
+      }
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the animation file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Read the animation from the given stream and use the builder to build a model. The stream may
+   * hold a text or a binary animation file, either of which may be compressed with gzip; all of
+   * them are recognized by their first bytes. The stream is read to its end and closed.
+   *
+   * @param in      the stream to read the animation from, e.g. System.in
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read or the stream cannot be read
+   */
+  public <T> T readFile(InputStream in, TweenModelBuilder<T> builder) throws
+          IllegalStateException, InputMismatchException {
+    return readScene(in, builder).getModel();
+  }
+
+  /**
+   * Read the animation from the given stream once, like readFile, keeping the settings of the
+   * scene, such as the background color, that are read along the way.
+   *
+   * @param in      the stream to read the animation from, e.g. System.in
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read or the stream cannot be read
+   */
+  public <T> AnimationScene<T> readScene(InputStream in, TweenModelBuilder<T> builder) throws
+          IllegalStateException, InputMismatchException {
+    return readStream(in, FilteringBuilder.of(builder, this.options));
+  }
+
+  /**
+   * Read the animation from the given stream like readScene, with a builder that has already been
+   * given the options.
+   *
+   * @param in      the stream to read the animation from
+   * @param builder the builder used to build the model, which only gets the selected commands
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read or the stream cannot be read
+   */
+  private <T> AnimationScene<T> readStream(InputStream in, TweenModelBuilder<T> builder) throws
+          IllegalStateException, InputMismatchException {
+    PushbackInputStream peekable =
+            new PushbackInputStream(in, BinaryAnimationFormat.MAGIC.length);
+    try {
+      byte[] start = peek(peekable, BinaryAnimationFormat.MAGIC.length);
+      if (isGzipped(ByteBuffer.wrap(start))) {
+        return readStream(new GZIPInputStream(peekable, GZIP_BUFFER_SIZE), builder);
+      }
+      if (BinaryAnimationFormat.startsWithMagic(ByteBuffer.wrap(start))) {
+        try (InputStream binary = peekable) {
+          return new BinaryAnimationReader().read(ByteBuffer.wrap(readAll(binary)), builder);
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the animation file: " + e.getMessage());
+    }
+    try (AnimationTokenizer sc = new AnimationTokenizer(peekable)) {
+      return read(sc, builder);
+    }
+  }
+
+  /**
+   * Read a text animation file from the given reader and use the builder to build a model. Since
+   * the reader gives characters, which cannot be compressed or binary, they are read as text. The
+   * reader is read to its end and closed.
+   *
+   * @param in      the reader to read the animation from
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read or the reader cannot be read
+   */
+  public <T> T readFile(Reader in, TweenModelBuilder<T> builder) throws
+          IllegalStateException, InputMismatchException {
+    return readScene(in, builder).getModel();
+  }
+
+  /**
+   * Read a text animation file from the given reader once, like readFile, keeping the settings of
+   * the scene, such as the background color, that are read along the way.
+   *
+   * @param in      the reader to read the animation from
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read or the reader cannot be read
+   */
+  public <T> AnimationScene<T> readScene(Reader in, TweenModelBuilder<T> builder) throws
+          IllegalStateException, InputMismatchException {
+    try (AnimationTokenizer sc = new AnimationTokenizer(in)) {
+      return read(sc, FilteringBuilder.of(builder, this.options));
+    }
+  }
+
+  /**
+   * Read the animation from the given channel and use the builder to build a model, the same way
+   * as from a stream: text, binary and gzip compressed animations are all recognized. The channel
+   * is read to its end and closed.
+   *
+   * @param in      the channel to read the animation from
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read or the channel cannot be read
+   */
+  public <T> T readFile(ReadableByteChannel in, TweenModelBuilder<T> builder) throws
+          IllegalStateException, InputMismatchException {
+    return readScene(in, builder).getModel();
+  }
+
+  /**
+   * Read the animation from the given channel once, like readFile, keeping the settings of the
+   * scene, such as the background color, that are read along the way.
+   *
+   * @param in      the channel to read the animation from
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read or the channel cannot be read
+   */
+  public <T> AnimationScene<T> readScene(ReadableByteChannel in, TweenModelBuilder<T> builder)
+          throws IllegalStateException, InputMismatchException {
+    return readScene(Channels.newInputStream(in), builder);
+  }
+
+  /**
+   * Reads the first bytes of the given stream and pushes them back, so that they are read again.
+   *
+   * @param in    the stream to peek into
+   * @param count the number of bytes to peek at, at most the size of the pushback buffer
+   * @return the first bytes, fewer than count if the stream is shorter
+   * @throws IOException if the stream cannot be read
+   */
+  private static byte[] peek(PushbackInputStream in, int count) throws IOException {
+    byte[] start = new byte[count];
+    int read = 0;
+    while (read < count) {
+      int n = in.read(start, read, count - read);
+      if (n < 0) {
+        break;
+      }
+      read += n;
+    }
+    in.unread(start, 0, read);
+    return read == count ? start : Arrays.copyOf(start, read);
+  }
+
+  /**
+   * Reads the first bytes of the file of the given channel without moving its position, so that
+   * they are read again.
+   *
+   * @param channel the channel of the file to peek into
+   * @param count   the number of bytes to peek at
+   * @return the first bytes, fewer than count if the file is shorter
+   * @throws IOException if the file cannot be read
+   */
+  static ByteBuffer peek(FileChannel channel, int count) throws IOException {
+    ByteBuffer start = ByteBuffer.allocate(count);
+    while (start.hasRemaining() && channel.read(start, start.position()) > 0) {
+      // read the first bytes
+    }
+    start.flip();
+    return start;
+  }
+
+  /**
+   * Reads the rest of the given stream.
+   *
+   * @param in the stream to read
+   * @return all of the bytes that were left in the stream
+   * @throws IOException if the stream cannot be read
+   */
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[GZIP_BUFFER_SIZE];
+    int n;
+    while ((n = in.read(buffer)) >= 0) {
+      bytes.write(buffer, 0, n);
+    }
+    return bytes.toByteArray();
+  }
 
-    sc = new Scanner(new FileInputStream(fileName));
+  /**
+   * Checks if the given first bytes of a file are those of a file compressed with gzip.
+   *
+   * @param start the first bytes of the file
+   * @return true if the file starts with the gzip magic bytes
+   */
+  static boolean isGzipped(ByteBuffer start) {
+    return start.remaining() >= GZIP_MAGIC.length
+            && start.get(start.position()) == GZIP_MAGIC[0]
+            && start.get(start.position() + 1) == GZIP_MAGIC[1];
+  }
 
+  /**
+   * Opens the text file of the given channel for reading its tokens, memory mapped or not, or
+   * through gzip if it is compressed. The tokens are read from the start of the file, and closing
+   * them closes the channel.
+   *
+   * @param channel the channel of the file to be read
+   * @param start   the first bytes of the file, to tell if it is compressed
+   * @return the tokens of the file
+   * @throws IOException if the file cannot be read
+   */
+  private AnimationTokenizer openText(FileChannel channel, ByteBuffer start) throws IOException {
+    if (isGzipped(start)) {
+      return new AnimationTokenizer(
+              new GZIPInputStream(Channels.newInputStream(channel), GZIP_BUFFER_SIZE));
+    }
+    if (this.memoryMapped) {
+      return new AnimationTokenizer(channel);
+    }
+    return new AnimationTokenizer(Channels.newInputStream(channel));
+  }
+
+  /**
+   * Read the animation from the given tokens and use the builder to build a model.
+   *
+   * @param sc      the tokens of the file
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read from the file
+   */
+  <T> AnimationScene<T> read(AnimationTokenizer sc, TweenModelBuilder<T> builder) throws
+          IllegalStateException, InputMismatchException {
+    float[] background = null;
+    Command info = new Command();
     while (sc.hasNext()) {
-      String command = sc.next();
-      ShapeInfo shapeInfo;
+      String command = sc.nextName();
+      float[] v = info.values;
       switch (command) {
         case "background":
           if (sc.next().equals("name")) {
-            sc.next();
+            background = Util.stringToColor(sc.next()).getColorComponents(null);
           } else {
-            sc.nextFloat();
-            sc.nextFloat();
-            sc.nextFloat();
+            float r = sc.nextFloat();
+            float g = sc.nextFloat();
+            float b = sc.nextFloat();
+            background = new float[]{r, g, b};
           }
           break;
         case "rectangle":
-          RectangleInfo rinfo = readRectangleInfo(sc);
-          if (rinfo.getLayer() == null) {
-            builder.addRectangle(
-                    rinfo.getName(),
-                    rinfo.getX(), rinfo.getY(),
-                    rinfo.getWidth(), rinfo.getHeight(),
-                    rinfo.getR(), rinfo.getG(), rinfo.getB(),
-                    rinfo.getStart(), rinfo.getEnd(),0);
-          } else {
-            builder.addRectangle(
-                    rinfo.getName(),
-                    rinfo.getX(), rinfo.getY(),
-                    rinfo.getWidth(), rinfo.getHeight(),
-                    rinfo.getR(), rinfo.getG(), rinfo.getB(),
-                    rinfo.getStart(), rinfo.getEnd(), rinfo.getLayer());
-          }
+          readRectangleInfo(sc, info.clear());
+          builder.addRectangle(info.name, v[0], v[1], v[2], v[3], v[4], v[5], v[6],
+                  info.start, info.end, info.layer);
           break;
         case "oval":
-          OvalInfo cinfo = readOvalInfo(sc);
-          if (cinfo.getLayer() == null) {
-            builder.addOval(
-                    cinfo.getName(),
-                    cinfo.getX(), cinfo.getY(),
-                    cinfo.getXRadius(), cinfo.getYRadius(),
-                    cinfo.getR(), cinfo.getG(), cinfo.getB(),
-                    cinfo.getStart(), cinfo.getEnd(),0);
-          } else {
-            builder.addOval(
-                    cinfo.getName(),
-                    cinfo.getX(), cinfo.getY(),
-                    cinfo.getXRadius(), cinfo.getYRadius(),
-                    cinfo.getR(), cinfo.getG(), cinfo.getB(),
-                    cinfo.getStart(), cinfo.getEnd(), cinfo.getLayer());
-          }
+          readOvalInfo(sc, info.clear());
+          builder.addOval(info.name, v[0], v[1], v[2], v[3], v[4], v[5], v[6],
+                  info.start, info.end, info.layer);
           break;
         case "move":
-          MoveInfo minfo = readMoveInfo(sc);
-          builder.addMove(
-                  minfo.getName(),
-                  minfo.getFromX(),
-                  minfo.getFromY(),
-                  minfo.getToX(),
-                  minfo.getToY(),
-                  minfo.getStart(),
-                  minfo.getEnd());
+          readMoveInfo(sc, info.clear());
+          builder.addMove(info.name, v[0], v[1], v[2], v[3], info.start, info.end);
           break;
         case "change-color":
-          ChangeColorInfo colorInfo = readChangeColorInfo(sc);
-          builder.addColorChange(colorInfo.name,
-                  colorInfo.getFromR(),
-                  colorInfo.getFromG(),
-                  colorInfo.getFromB(),
-                  colorInfo.getToR(),
-                  colorInfo.getToG(),
-                  colorInfo.getToB(),
-                  colorInfo.getStart(),
-                  colorInfo.getEnd());
+          readChangeColorInfo(sc, info.clear());
+          builder.addColorChange(info.name, v[0], v[1], v[2], v[3], v[4], v[5],
+                  info.start, info.end);
           break;
         case "scale":
-          ScaleByInfo scaleByInfo = readScaleByInfo(sc);
-          builder.addScaleToChange(scaleByInfo.name,
-                  scaleByInfo.getFromXScale(),
-                  scaleByInfo.getFromYScale(),
-                  scaleByInfo.getToXScale(),
-                  scaleByInfo.getToYScale(),
-                  scaleByInfo.getStart(),
-                  scaleByInfo.getEnd());
+          readScaleByInfo(sc, info.clear());
+          builder.addScaleToChange(info.name, v[0], v[1], v[2], v[3], info.start, info.end);
           break;
         default:
           throw new IllegalStateException("Unidentified token " + command + " "
@@ -147,35 +453,31 @@ public class AnimationFileReader {
 
       }
     }
-    return builder.build();
+    return new AnimationScene<>(builder.build(), background);
   }
 
-  private RectangleInfo readRectangleInfo(Scanner sc) throws
+  private void readRectangleInfo(AnimationTokenizer sc, Command info) throws
           IllegalStateException, InputMismatchException {
-    RectangleInfo info = new RectangleInfo();
-
-    while (!info.isAllInitialized()) {
-      String command = sc.next();
+    while (!info.isAllInitialized(Command.SHAPE)) {
+      String command = sc.nextName();
       switch (command) {
         case "lower-left-x":
-          info.setX(sc.nextFloat());
+          info.setValue(0, sc.nextFloat());
           break;
         case "lower-left-y":
-          info.setY(sc.nextFloat());
+          info.setValue(1, sc.nextFloat());
           break;
         case "width":
-          info.setWidth(sc.nextFloat());
+          info.setValue(2, sc.nextFloat());
           break;
         case "height":
-          info.setHeight(sc.nextFloat());
+          info.setValue(3, sc.nextFloat());
           break;
         case "color":
-          info.setR(sc.nextFloat());
-          info.setG(sc.nextFloat());
-          info.setB(sc.nextFloat());
+          info.setColor(sc.nextFloat(), sc.nextFloat(), sc.nextFloat());
           break;
         case "name":
-          info.setName(sc.next());
+          info.setName(sc.nextName());
           break;
         case "from":
           info.setStart(sc.nextInt());
@@ -191,36 +493,30 @@ public class AnimationFileReader {
                   + "rectangle");
       }
     }
-
-    return info;
   }
 
-  private OvalInfo readOvalInfo(Scanner sc) throws
+  private void readOvalInfo(AnimationTokenizer sc, Command info) throws
           IllegalStateException, InputMismatchException {
-    OvalInfo info = new OvalInfo();
-
-    while (!info.isAllInitialized()) {
-      String command = sc.next();
+    while (!info.isAllInitialized(Command.SHAPE)) {
+      String command = sc.nextName();
       switch (command) {
         case "center-x":
-          info.setX(sc.nextFloat());
+          info.setValue(0, sc.nextFloat());
           break;
         case "center-y":
-          info.setY(sc.nextFloat());
+          info.setValue(1, sc.nextFloat());
           break;
         case "x-radius":
-          info.setXRadius(sc.nextFloat());
+          info.setValue(2, sc.nextFloat());
           break;
         case "y-radius":
-          info.setYRadius(sc.nextFloat());
+          info.setValue(3, sc.nextFloat());
           break;
         case "color":
-          info.setR(sc.nextFloat());
-          info.setG(sc.nextFloat());
-          info.setB(sc.nextFloat());
+          info.setColor(sc.nextFloat(), sc.nextFloat(), sc.nextFloat());
           break;
         case "name":
-          info.setName(sc.next());
+          info.setName(sc.nextName());
           break;
         case "from":
           info.setStart(sc.nextInt());
@@ -236,25 +532,18 @@ public class AnimationFileReader {
                   + "oval");
       }
     }
-
-    return info;
   }
 
-  private MoveInfo readMoveInfo(Scanner sc) throws
+  private void readMoveInfo(AnimationTokenizer sc, Command info) throws
           IllegalStateException, InputMismatchException {
-    MoveInfo info = new MoveInfo();
-
-    while (!info.isAllInitialized()) {
-      String command = sc.next();
+    while (!info.isAllInitialized(Command.ANIMATION)) {
+      String command = sc.nextName();
       switch (command) {
         case "moveto":
-          info.setFromX(sc.nextFloat());
-          info.setFromY(sc.nextFloat());
-          info.setToX(sc.nextFloat());
-          info.setToY(sc.nextFloat());
+          info.setValues(4, sc);
           break;
         case "name":
-          info.setName(sc.next());
+          info.setName(sc.nextName());
           break;
         case "from":
           info.setStart(sc.nextInt());
@@ -267,27 +556,18 @@ public class AnimationFileReader {
                   + "move");
       }
     }
-
-    return info;
   }
 
-  private ChangeColorInfo readChangeColorInfo(Scanner sc) throws
+  private void readChangeColorInfo(AnimationTokenizer sc, Command info) throws
           IllegalStateException, InputMismatchException {
-    ChangeColorInfo info = new ChangeColorInfo();
-
-    while (!info.isAllInitialized()) {
-      String command = sc.next();
+    while (!info.isAllInitialized(Command.ANIMATION)) {
+      String command = sc.nextName();
       switch (command) {
         case "colorto":
-          info.setFromR(sc.nextFloat());
-          info.setFromG(sc.nextFloat());
-          info.setFromB(sc.nextFloat());
-          info.setToR(sc.nextFloat());
-          info.setToG(sc.nextFloat());
-          info.setToB(sc.nextFloat());
+          info.setValues(6, sc);
           break;
         case "name":
-          info.setName(sc.next());
+          info.setName(sc.nextName());
           break;
         case "from":
           info.setStart(sc.nextInt());
@@ -300,25 +580,18 @@ public class AnimationFileReader {
                   + "change-color");
       }
     }
-
-    return info;
   }
 
-  private ScaleByInfo readScaleByInfo(Scanner sc) throws
+  private void readScaleByInfo(AnimationTokenizer sc, Command info) throws
           IllegalStateException, InputMismatchException {
-    ScaleByInfo info = new ScaleByInfo();
-
-    while (!info.isAllInitialized()) {
-      String command = sc.next();
+    while (!info.isAllInitialized(Command.ANIMATION)) {
+      String command = sc.nextName();
       switch (command) {
         case "scaleto":
-          info.setFromXScale(sc.nextFloat());
-          info.setFromYScale(sc.nextFloat());
-          info.setToXScale(sc.nextFloat());
-          info.setToYScale(sc.nextFloat());
+          info.setValues(4, sc);
           break;
         case "name":
-          info.setName(sc.next());
+          info.setName(sc.nextName());
           break;
         case "from":
           info.setStart(sc.nextInt());
@@ -331,500 +604,98 @@ public class AnimationFileReader {
                   + "scale-to");
       }
     }
-
-    return info;
   }
 
+  /**
+   * The attributes of the command being read. A single record is reused for every command of a
+   * file, so reading a command allocates nothing, whether it is passed on to the builder or not.
+   * Which attributes have been given is kept as bits, checked against the bits a kind of command
+   * needs.
+   */
+  private static final class Command {
+    private static final int NAME = 1;
+    private static final int START = 1 << 1;
+    private static final int END = 1 << 2;
+    private static final int COLOR = 1 << 3;
+    private static final int VALUES = 1 << 4;
+
+    /**
+     * The attributes a shape needs: the name, the lifetime, four values and the color.
+     */
+    static final int SHAPE = NAME | START | END | COLOR | VALUES * 0xF;
+
+    /**
+     * The attributes an animation needs: the name, the ticks and its values at once.
+     */
+    static final int ANIMATION = NAME | START | END | VALUES;
 
-  class Inputable {
-    protected Map<String, Boolean> valueFlags;
-
-    public Inputable() {
-      valueFlags = new HashMap<String, Boolean>();
-
-    }
-
-    public boolean isAllInitialized() {
-      for (Map.Entry<String, Boolean> entry : valueFlags.entrySet()) {
-        if (!entry.getValue()) {
-          return false;
-        }
-      }
-      return true;
-    }
-  }
-
-  class ShapeInfo extends Inputable {
-    private String name;
-    private float r;
-    private float g;
-    private float b;
-    private int start;
-    private int end;
-    private Integer layer;
-
-    ShapeInfo() {
-      super();
-      valueFlags.put("name", false);
-      valueFlags.put("r", false);
-      valueFlags.put("g", false);
-      valueFlags.put("b", false);
-      valueFlags.put("start", false);
-      valueFlags.put("end", false);
-    }
-
-    void setName(String name) {
-      this.name = name;
-      valueFlags.replace("name", true);
-    }
-
-    void setR(float r) {
-      this.r = r;
-      valueFlags.replace("r", true);
-    }
-
-    void setG(float g) {
-      this.g = g;
-      valueFlags.replace("g", true);
-    }
-
-
-    void setB(float b) {
-      this.b = b;
-      valueFlags.replace("b", true);
-    }
-
-    void setStart(int start) {
-      this.start = start;
-      valueFlags.replace("start", true);
-    }
-
-    void setEnd(int end) {
-      this.end = end;
-      valueFlags.replace("end", true);
-    }
-
-    void setLayer(int layer) {
-      this.layer = layer;
-    }
-
-    float getR() {
-      return r;
-    }
-
-    float getG() {
-      return g;
-    }
-
-    float getB() {
-      return b;
-    }
-
-    String getName() {
-      return name;
-    }
-
-    public int getStart() {
-      return start;
-    }
-
-    public int getEnd() {
-      return end;
-    }
-
-    public Integer getLayer() {
-      return layer;
-    }
-  }
-
-  class RectangleInfo extends ShapeInfo {
-    private float x;
-    private float y;
-    private float width;
-    private float height;
-
-    RectangleInfo() {
-      super();
-      valueFlags.put("x", false);
-      valueFlags.put("y", false);
-      valueFlags.put("width", false);
-      valueFlags.put("height", false);
-    }
-
-    void setX(float x) {
-      this.x = x;
-      valueFlags.replace("x", true);
-    }
-
-    void setY(float y) {
-      this.y = y;
-      valueFlags.replace("y", true);
-    }
-
-    void setWidth(float width) {
-      this.width = width;
-      valueFlags.replace("width", true);
-    }
-
-    void setHeight(float height) {
-      this.height = height;
-      valueFlags.replace("height", true);
-    }
-
-    float getX() {
-      return x;
-    }
-
-    float getY() {
-      return y;
-    }
-
-    float getWidth() {
-      return width;
-    }
-
-    float getHeight() {
-      return height;
-    }
-  }
-
-  class OvalInfo extends ShapeInfo {
-    private float cx;
-    private float cy;
-    private float xradius;
-    private float yradius;
-
-    OvalInfo() {
-      super();
-      valueFlags.put("cx", false);
-      valueFlags.put("cy", false);
-      valueFlags.put("xradius", false);
-      valueFlags.put("yradius", false);
-    }
-
-    void setX(float x) {
-      this.cx = x;
-      valueFlags.replace("cx", true);
-    }
-
-    void setY(float y) {
-      this.cy = y;
-      valueFlags.replace("cy", true);
-    }
-
-    void setXRadius(float radius) {
-      this.xradius = radius;
-      valueFlags.replace("xradius", true);
-    }
-
-    void setYRadius(float radius) {
-      this.yradius = radius;
-      valueFlags.replace("yradius", true);
-    }
-
-    float getX() {
-      return cx;
-    }
-
-    float getY() {
-      return cy;
-    }
-
-    float getXRadius() {
-      return xradius;
-    }
-
-    float getYRadius() {
-      return yradius;
-    }
-
-  }
-
-  class MoveInfo extends Inputable {
-    private String name;
-    private float fromX;
-    private float fromY;
-    private float toX;
-    private float toY;
-    private int start;
-    private int end;
-
-    MoveInfo() {
-      super();
-
-      valueFlags.put("name", false);
-      valueFlags.put("fromx", false);
-      valueFlags.put("fromy", false);
-      valueFlags.put("tox", false);
-      valueFlags.put("toy", false);
-      valueFlags.put("start", false);
-      valueFlags.put("end", false);
-
-    }
-
-    void setName(String name) {
-      this.name = name;
-      valueFlags.replace("name", true);
-    }
-
-    void setFromX(float x) {
-      this.fromX = x;
-      valueFlags.replace("fromx", true);
-    }
-
-    void setFromY(float y) {
-      this.fromY = y;
-      valueFlags.replace("fromy", true);
-    }
-
-
-    void setToX(float x) {
-      this.toX = x;
-      valueFlags.replace("tox", true);
-    }
-
-    void setToY(float y) {
-      this.toY = y;
-      valueFlags.replace("toy", true);
-    }
-
-    void setStart(int start) {
-      this.start = start;
-      valueFlags.replace("start", true);
-    }
-
-    void setEnd(int end) {
-      this.end = end;
-      valueFlags.replace("end", true);
-    }
-
-    String getName() {
-      return name;
-    }
-
-    float getFromX() {
-      return fromX;
-    }
-
-    float getFromY() {
-      return fromY;
-    }
-
-
-    float getToX() {
-      return toX;
-    }
-
-    float getToY() {
-      return toY;
-    }
-
-    int getStart() {
-      return start;
-    }
-
-    int getEnd() {
-      return end;
-    }
-  }
-
-  class ChangeColorInfo extends Inputable {
     private String name;
-    private float fromR;
-    private float fromG;
-    private float fromB;
-    private float toR;
-    private float toG;
-    private float toB;
+    private final float[] values = new float[7];
     private int start;
     private int end;
+    private int layer;
+    private int given;
 
-    ChangeColorInfo() {
-      super();
-
-      valueFlags.put("name", false);
-      valueFlags.put("tor", false);
-      valueFlags.put("tog", false);
-      valueFlags.put("tob", false);
-      valueFlags.put("fromr", false);
-      valueFlags.put("fromg", false);
-      valueFlags.put("fromb", false);
-      valueFlags.put("start", false);
-      valueFlags.put("end", false);
-
-    }
-
-    void setName(String name) {
-      this.name = name;
-      valueFlags.replace("name", true);
-    }
-
-    void setFromR(float r) {
-      this.fromR = r;
-      valueFlags.replace("fromr", true);
-    }
-
-    void setFromG(float g) {
-      this.fromG = g;
-      valueFlags.replace("fromg", true);
-    }
-
-    void setFromB(float b) {
-      this.fromB = b;
-      valueFlags.replace("fromb", true);
-    }
-
-
-    void setToR(float r) {
-      this.toR = r;
-      valueFlags.replace("tor", true);
-    }
-
-    void setToG(float g) {
-      this.toG = g;
-      valueFlags.replace("tog", true);
-    }
-
-    void setToB(float b) {
-      this.toB = b;
-      valueFlags.replace("tob", true);
-    }
-
-    void setStart(int start) {
-      this.start = start;
-      valueFlags.replace("start", true);
-    }
-
-    void setEnd(int end) {
-      this.end = end;
-      valueFlags.replace("end", true);
-    }
-
-    String getName() {
-      return name;
+    /**
+     * Forgets the attributes of the last command.
+     *
+     * @return this record
+     */
+    Command clear() {
+      this.given = 0;
+      this.layer = 0;
+      return this;
     }
 
-    float getFromR() {
-      return fromR;
-    }
-
-    float getFromG() {
-      return fromG;
-    }
-
-    float getFromB() {
-      return fromB;
-    }
-
-
-    float getToR() {
-      return toR;
-    }
-
-    float getToG() {
-      return toG;
-    }
-
-    float getToB() {
-      return toB;
-    }
-
-    int getStart() {
-      return start;
-    }
-
-    int getEnd() {
-      return end;
-    }
-  }
-
-  class ScaleByInfo extends Inputable {
-    private String name;
-    private float fromSx;
-    private float fromSy;
-    private float toSx;
-    private float toSy;
-    private int start;
-    private int end;
-
-    ScaleByInfo() {
-      super();
-
-      valueFlags.put("name", false);
-      valueFlags.put("fromsx", false);
-      valueFlags.put("fromsy", false);
-      valueFlags.put("tosx", false);
-      valueFlags.put("tosy", false);
-      valueFlags.put("start", false);
-      valueFlags.put("end", false);
-
+    boolean isAllInitialized(int needed) {
+      return (this.given & needed) == needed;
     }
 
     void setName(String name) {
       this.name = name;
-      valueFlags.replace("name", true);
-    }
-
-    void setFromXScale(float sx) {
-      this.fromSx = sx;
-      valueFlags.replace("fromsx", true);
+      this.given |= NAME;
     }
 
-    void setFromYScale(float sy) {
-      this.fromSy = sy;
-      valueFlags.replace("fromsy", true);
-    }
-
-
-    void setToXScale(float sx) {
-      this.toSx = sx;
-      valueFlags.replace("tosx", true);
-    }
-
-    void setToYScale(float sy) {
-      this.toSy = sy;
-      valueFlags.replace("tosy", true);
-    }
-
-
     void setStart(int start) {
       this.start = start;
-      valueFlags.replace("start", true);
+      this.given |= START;
     }
 
     void setEnd(int end) {
       this.end = end;
-      valueFlags.replace("end", true);
+      this.given |= END;
     }
 
-    String getName() {
-      return name;
-    }
-
-    float getFromXScale() {
-      return fromSx;
-    }
-
-    float getFromYScale() {
-      return fromSy;
-    }
-
-
-    float getToXScale() {
-      return toSx;
+    void setLayer(int layer) {
+      this.layer = layer;
     }
 
-    float getToYScale() {
-      return toSy;
+    /**
+     * Sets one of the four values of a shape, such as its x-coordinate.
+     */
+    void setValue(int index, float value) {
+      this.values[index] = value;
+      this.given |= VALUES << index;
     }
 
-
-    int getStart() {
-      return start;
+    /**
+     * Sets the color of a shape, which follows its four values.
+     */
+    void setColor(float red, float green, float blue) {
+      this.values[4] = red;
+      this.values[5] = green;
+      this.values[6] = blue;
+      this.given |= COLOR;
     }
 
-    int getEnd() {
-      return end;
+    /**
+     * Reads all of the values of an animation, which are given at once.
+     */
+    void setValues(int count, AnimationTokenizer sc) {
+      for (int i = 0; i < count; i++) {
+        this.values[i] = sc.nextFloat();
+      }
+      this.given |= VALUES;
     }
   }
 }
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.HashSet;
+import java.util.function.IntFunction;
 
 import cs3500.animator.model.animation.IAnimation;
 import cs3500.animator.model.shape.AnimShape;
@@ -13,54 +14,115 @@ import cs3500.animator.model.animation.ColorAnimation;
 import cs3500.animator.model.animation.MoveAnimation;
 import cs3500.animator.model.animation.ScaleAnimation;
 import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.shape.ImmutableAnimShape;
 import cs3500.animator.model.shape.Oval;
 import cs3500.animator.model.shape.Pos;
 import cs3500.animator.model.shape.Rectangle;
+import cs3500.animator.model.shape.ShapeStore;
+import cs3500.animator.model.util.SymbolTable;
 import cs3500.animator.model.util.TweenModelBuilder;
 
 /**
  * Implementation of the IAnimation Model. Added Builder and skipTo when details about view were
  * revealed. Each model runs a series of animations with multiple objects and multiple
- * motions/animations.
+ * motions/animations. The name of every shape is interned into a symbol table, and the shapes, their
+ * initial states and their tracks are kept in lists indexed by the resulting id, which the shapes
+ * carry along, so that a name is only looked up once, when an animation is added by name.
  */
 public final class AnimationModel implements IAnimationModel<IAnimShape, IAnimation> {
 
-  private HashMap<String, IAnimShape> shapes;
+  private SymbolTable symbols;
+  private List<IAnimShape> shapes;
   private List<IAnimShape> shapesList;
-  private List<IAnimation> animations;
-  private HashMap<String, IAnimShape> original;
+  private ArrayList<IAnimation> animations;
+  private List<IAnimShape> original;
   private HashMap<Integer, List<IAnimShape>> layeredShapes;
+  private List<ShapeTrack> tracks;
+  private TimelineExtents extents;
 
   /**
    * A private constructor takes in nothing. Initialize all the fields.
    */
   private AnimationModel() {
-    shapes = new HashMap<>();
+    symbols = new SymbolTable();
+    shapes = new ArrayList<>();
     shapesList = new ArrayList<>();
-    original = new HashMap<>();
+    original = new ArrayList<>();
     animations = new ArrayList<>();
 
     layeredShapes = new HashMap<>();
+    tracks = new ArrayList<>();
+    extents = new TimelineExtents();
   }
 
   @Override
-  public IAnimationModel copy() {
+  public IAnimationModel<IAnimShape, IAnimation> copy() {
     AnimationModel copy = new AnimationModel();
-    copy.shapes = new HashMap<>(this.shapes);
-    copy.animations = new ArrayList<>(this.animations);
+    for (IAnimShape s : this.shapesList) {
+      copy.addAnimShape(s.getName(), s, this.original.get(s.getId()));
+    }
+    // the shapes are shared, but adding the same animations again would take the values they
+    // start from off the shapes as they are now, and so change the animations of this model
+    for (IAnimation a : this.animations) {
+      int id = a.getShapeId();
+      copy.insertAnimation(copy.tracks.get(id), a.copyFor(copy.shapes.get(id)));
+    }
     return copy;
   }
 
   @Override
-  public int endTime() {
-    int endTime = 0;
-    for (String name : shapes.keySet()) {
-      endTime = Math.max(endTime, shapes.get(name).getDisappears());
+  public ModelSnapshot snapshot() {
+    return new ModelSnapshot(this.deepCopy(true));
+  }
+
+  /**
+   * Makes a copy of this model that shares nothing that can change with it: every shape, initial
+   * state and animation is copied.
+   *
+   * @param frozen whether the shapes of the copy should be read only records
+   * @return the copy of this model
+   */
+  AnimationModel deepCopy(boolean frozen) {
+    AnimationModel copy = new AnimationModel();
+    for (IAnimShape s : this.shapesList) {
+      IAnimShape initial = this.original.get(s.getId());
+      if (frozen) {
+        copy.addAnimShape(s.getName(), ImmutableAnimShape.of(s), ImmutableAnimShape.of(initial));
+      } else {
+        copy.addAnimShape(s.getName(), s.copy(), initial.copy());
+      }
     }
-    for (IAnimation a : animations) {
-      endTime = Math.max(endTime, a.getEnd());
+    // the copy interns the same names in the same order, so the ids stay the same
+    for (IAnimation a : this.animations) {
+      int id = a.getShapeId();
+      copy.insertAnimation(copy.tracks.get(id), a.copyFor(copy.shapes.get(id)));
     }
-    return endTime;
+    return copy;
+  }
+
+  @Override
+  public int endTime() {
+    return this.extents.endTime();
+  }
+
+  @Override
+  public int startTime() {
+    return this.extents.startTime();
+  }
+
+  @Override
+  public int firstAppearance() {
+    return this.extents.firstAppearance();
+  }
+
+  @Override
+  public int lastDisappearance() {
+    return this.extents.lastDisappearance();
+  }
+
+  @Override
+  public int busiestTick() {
+    return this.extents.busiestTick();
   }
 
   /**
@@ -69,88 +131,250 @@ public final class AnimationModel implements IAnimationModel<IAnimShape, IAnimat
    * @return a new builder.
    */
   public static Builder builder() {
-    return new Builder();
+    return new Builder(null, new AnimationModel());
   }
 
   /**
-   * The builder class which is nested in the model.
+   * Return a new builder whose shapes keep their state in a ShapeStore, i.e. in parallel primitive
+   * arrays instead of one object graph per shape. This lowers the heap size and garbage for scenes
+   * with very many shapes, at the cost of storing colors with 8 bits per channel.
+   *
+   * @return a new builder backed by a ShapeStore.
    */
-  public static final class Builder implements TweenModelBuilder<IAnimationModel> {
-    IAnimationModel<IAnimShape, IAnimation> model = new AnimationModel();
+  public static Builder compactBuilder() {
+    return new Builder(new ShapeStore(), new AnimationModel());
+  }
+
+  /**
+   * Return a builder that adds to the given model instead of a new one, e.g. to add the commands
+   * that were appended to a file after the model was read from it. The builder builds that same
+   * model.
+   *
+   * @param model the model to add to
+   * @return a new builder of the given model.
+   */
+  public static Builder builder(IAnimationModel<IAnimShape, IAnimation> model) {
+    return new Builder(null, model);
+  }
+
+  /**
+   * The builder class which is nested in the model. The values of the color and scale animations
+   * it makes are written into columns of the builder, which the animations read from, rather than
+   * into arrays of their own. A column is never written again once it is full, and a new one is
+   * started instead, since the animations keep reading from it.
+   */
+  public static final class Builder
+          implements TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> {
+    private static final int COLUMN_SIZE = 1 << 10;
+
+    IAnimationModel<IAnimShape, IAnimation> model;
+    private final ShapeStore store;
+    private float[] colors;
+    private int colorsUsed;
+    private double[] scales;
+    private int scalesUsed;
+
+    /**
+     * Creates a builder of the given model that stores its shapes in the given store, or in
+     * AnimShapes if it is null.
+     *
+     * @param store the store for the shapes, may be null
+     * @param model the model to add to
+     */
+    private Builder(ShapeStore store, IAnimationModel<IAnimShape, IAnimation> model) {
+      this.store = store;
+      this.model = model;
+    }
+
+    @Override
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addOval(
+            String name, float cx, float cy, float xRadius, float yRadius, float red, float green,
+            float blue, int startOfLife, int endOfLife) {
+      return this.addOval(name, cx, cy, xRadius, yRadius, red, green, blue,
+              startOfLife, endOfLife, 0);
+    }
 
     @Override
-    public TweenModelBuilder<IAnimationModel> addOval(String name, float cx, float cy,
-                                                      float xRadius, float yRadius,
-                                                      float red, float green, float blue,
-                                                      int startOfLife, int endOfLife) {
-      this.model.addAnimShape(new AnimShape(name, new Color(red, green, blue), new Pos(cx, cy),
-              startOfLife, endOfLife, new Oval(xRadius, yRadius)));
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addOval(
+            String name, float cx, float cy, float xRadius, float yRadius, float red, float green,
+            float blue, int startOfLife, int endOfLife, int layer) {
+      if (this.store != null) {
+        this.addStored(this.store.addOval(name, cx, cy, xRadius, yRadius,
+                new Color(red, green, blue), startOfLife, endOfLife, layer));
+      } else {
+        this.model.addAnimShape(new AnimShape(name, new Color(red, green, blue), new Pos(cx, cy),
+                startOfLife, endOfLife, new Oval(xRadius, yRadius), layer));
+      }
       return this;
     }
 
     @Override
-    public TweenModelBuilder<IAnimationModel> addOval(String name, float cx, float cy,
-                                                      float xRadius, float yRadius,
-                                                      float red, float green, float blue,
-                                                      int startOfLife, int endOfLife, int layer) {
-      this.model.addAnimShape(new AnimShape(name, new Color(red, green, blue), new Pos(cx, cy),
-              startOfLife, endOfLife, new Oval(xRadius, yRadius), layer));
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addRectangle(
+            String name, float lx, float ly, float width, float height, float red, float green,
+            float blue, int startOfLife, int endOfLife) {
+      return this.addRectangle(name, lx, ly, width, height, red, green, blue,
+              startOfLife, endOfLife, 0);
+    }
+
+    @Override
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addRectangle(
+            String name, float lx, float ly, float width, float height, float red, float green,
+            float blue, int startOfLife, int endOfLife, int layer) {
+      if (this.store != null) {
+        this.addStored(this.store.addRectangle(name, lx, ly, width, height,
+                new Color(red, green, blue), startOfLife, endOfLife, layer));
+      } else {
+        this.model.addAnimShape(new AnimShape(name, new Color(red, green, blue), new Pos(lx, ly),
+                startOfLife, endOfLife, new Rectangle(width, height), layer));
+      }
       return this;
     }
 
     @Override
-    public TweenModelBuilder<IAnimationModel> addRectangle(String name, float lx, float ly,
-                                                           float width, float height,
-                                                           float red, float green, float blue,
-                                                           int startOfLife, int endOfLife) {
-      this.model.addAnimShape(new AnimShape(name, new Color(red, green, blue), new Pos(lx, ly),
-              startOfLife, endOfLife, new Rectangle(width, height)));
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addMove(
+            String name, float moveFromX, float moveFromY, float moveToX, float moveToY,
+            int startTime, int endTime) {
+      this.model.addAnimation(name, new MoveAnimation(startTime, endTime,
+              moveFromX, moveFromY, moveToX, moveToY));
       return this;
     }
 
     @Override
-    public TweenModelBuilder<IAnimationModel> addRectangle(String name, float lx, float ly,
-                                                           float width, float height,
-                                                           float red, float green, float blue,
-                                                           int startOfLife, int endOfLife,
-                                                           int layer) {
-      this.model.addAnimShape(new AnimShape(name, new Color(red, green, blue), new Pos(lx, ly),
-              startOfLife, endOfLife, new Rectangle(width, height), layer));
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addColorChange(
+            String name, float oldR, float oldG, float oldB, float newR, float newG, float newB,
+            int startTime, int endTime) {
+      int v = this.reserveColors(6);
+      float[] column = this.colors;
+      column[v] = oldR;
+      column[v + 1] = oldG;
+      column[v + 2] = oldB;
+      column[v + 3] = newR;
+      column[v + 4] = newG;
+      column[v + 5] = newB;
+      this.model.addAnimation(name, new ColorAnimation(startTime, endTime, column, v));
       return this;
     }
 
     @Override
-    public TweenModelBuilder<IAnimationModel> addMove(String name,
-                                                      float moveFromX, float moveFromY,
-                                                      float moveToX, float moveToY,
-                                                      int startTime, int endTime) {
-      this.model.addAnimation(name, new MoveAnimation(startTime, endTime,
-              new Pos(moveFromX, moveFromY), new Pos(moveToX, moveToY)));
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addScaleToChange(
+            String name, float fromSx, float fromSy, float toSx, float toSy, int startTime,
+            int endTime) {
+      int v = this.reserveScales(4);
+      double[] column = this.scales;
+      column[v] = fromSx;
+      column[v + 1] = fromSy;
+      column[v + 2] = toSx;
+      column[v + 3] = toSy;
+      this.model.addAnimation(name, new ScaleAnimation(startTime, endTime, column, v, 2));
       return this;
     }
 
     @Override
-    public TweenModelBuilder<IAnimationModel> addColorChange(String name,
-                                                             float oldR, float oldG, float oldB,
-                                                             float newR, float newG, float newB,
-                                                             int startTime, int endTime) {
-      this.model.addAnimation(name, new ColorAnimation(startTime, endTime,
-              new Color(oldR, oldG, oldB), new Color(newR, newG, newB)));
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addMoves(
+            String[] names, int[] startTimes, int[] endTimes, int offset, float[] values,
+            int valueOffset, int count) {
+      this.addAll(names, offset, count, i -> {
+        int v = valueOffset + 4 * i;
+        return new MoveAnimation(startTimes[offset + i], endTimes[offset + i],
+                values[v], values[v + 1], values[v + 2], values[v + 3]);
+      });
       return this;
     }
 
     @Override
-    public TweenModelBuilder<IAnimationModel> addScaleToChange(String name,
-                                                               float fromSx, float fromSy,
-                                                               float toSx, float toSy,
-                                                               int startTime, int endTime) {
-      this.model.addAnimation(name, new ScaleAnimation(startTime, endTime,
-              new double[]{fromSx, fromSy}, new double[]{toSx, toSy}));
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addColorChanges(
+            String[] names, int[] startTimes, int[] endTimes, int offset, float[] values,
+            int valueOffset, int count) {
+      int at = this.reserveColors(6 * count);
+      float[] column = this.colors;
+      System.arraycopy(values, valueOffset, column, at, 6 * count);
+      this.addAll(names, offset, count, i -> new ColorAnimation(startTimes[offset + i],
+              endTimes[offset + i], column, at + 6 * i));
       return this;
     }
 
     @Override
-    public IAnimationModel build() {
+    public TweenModelBuilder<IAnimationModel<IAnimShape, IAnimation>> addScaleToChanges(
+            String[] names, int[] startTimes, int[] endTimes, int offset, float[] values,
+            int valueOffset, int count) {
+      int at = this.reserveScales(4 * count);
+      double[] column = this.scales;
+      for (int i = 0; i < 4 * count; i++) {
+        column[at + i] = values[valueOffset + i];
+      }
+      this.addAll(names, offset, count, i -> new ScaleAnimation(startTimes[offset + i],
+              endTimes[offset + i], column, at + 4 * i, 2));
+      return this;
+    }
+
+    /**
+     * Adds a shape of the store to the model. An AnimationModel keeps the initial state of the shape
+     * in the store too, instead of in an AnimShape copy.
+     *
+     * @param shape the shape to add
+     */
+    private void addStored(IAnimShape shape) {
+      if (this.model instanceof AnimationModel) {
+        ((AnimationModel) this.model).addAnimShape(shape.getName(), shape,
+                this.store.initialStateOf(shape));
+      } else {
+        this.model.addAnimShape(shape);
+      }
+    }
+
+    /**
+     * Adds a batch of animations to the model, all at once if it is an AnimationModel.
+     *
+     * @param names      the names of the shapes of the animations
+     * @param offset     the index of the name of the first animation
+     * @param count      the number of animations to add
+     * @param animations makes the i-th animation of the batch
+     */
+    private void addAll(String[] names, int offset, int count,
+                        IntFunction<IAnimation> animations) {
+      if (this.model instanceof AnimationModel) {
+        ((AnimationModel) this.model).addAnimations(names, offset, count, animations);
+      } else {
+        for (int i = 0; i < count; i++) {
+          this.model.addAnimation(names[offset + i], animations.apply(i));
+        }
+      }
+    }
+
+    /**
+     * Makes room in the column of colors for the given number of components.
+     *
+     * @param size the number of components
+     * @return the index of the first of them in the column
+     */
+    private int reserveColors(int size) {
+      if (this.colors == null || this.colorsUsed + size > this.colors.length) {
+        this.colors = new float[Math.max(COLUMN_SIZE, size)];
+        this.colorsUsed = 0;
+      }
+      int at = this.colorsUsed;
+      this.colorsUsed += size;
+      return at;
+    }
+
+    /**
+     * Makes room in the column of dimensions for the given number of dimensions.
+     *
+     * @param size the number of dimensions
+     * @return the index of the first of them in the column
+     */
+    private int reserveScales(int size) {
+      if (this.scales == null || this.scalesUsed + size > this.scales.length) {
+        this.scales = new double[Math.max(COLUMN_SIZE, size)];
+        this.scalesUsed = 0;
+      }
+      int at = this.scalesUsed;
+      this.scalesUsed += size;
+      return at;
+    }
+
+    @Override
+    public IAnimationModel<IAnimShape, IAnimation> build() {
       return this.model;
     }
   }
@@ -161,9 +385,37 @@ public final class AnimationModel implements IAnimationModel<IAnimShape, IAnimat
     if (!name.equals(animObject.getName())) {
       throw new IllegalArgumentException("Names are not consistent.");
     }
-    this.shapes.put(name, animObject);
-    this.original.put(name, animObject.copy());
+    this.addAnimShape(name, animObject, animObject.copy());
+  }
+
+  /**
+   * Adds the given animation object to the model with the given initial state. The name is
+   * interned, and both the object and its initial state are given the id of the name.
+   *
+   * @param name       Name to refer to the animation object with.
+   * @param animObject IAnimation object to add to the animation.
+   * @param initial    the state of the object at the start of the animation.
+   */
+  private void addAnimShape(String name, IAnimShape animObject, IAnimShape initial) {
+    int id = this.symbols.intern(name);
+    if (animObject.getId() != id) {
+      animObject.setId(id);
+    }
+    if (initial.getId() != id) {
+      initial.setId(id);
+    }
+    ShapeTrack track = new ShapeTrack(animObject, initial);
+    if (id == this.shapes.size()) {
+      this.shapes.add(animObject);
+      this.original.add(initial);
+      this.tracks.add(track);
+    } else {
+      this.shapes.set(id, animObject);
+      this.original.set(id, initial);
+      this.tracks.set(id, track);
+    }
     this.shapesList.add(animObject);
+    this.extents.addShape(animObject);
 
     int layer = animObject.getLayer();
     if (layeredShapes.containsKey(layer)) {
@@ -183,28 +435,80 @@ public final class AnimationModel implements IAnimationModel<IAnimShape, IAnimat
   @Override
   public void addAnimation(String name, IAnimation animation)
           throws IllegalArgumentException {
-    if (!this.shapes.containsKey(name)) {
+    int id = this.symbols.idOf(name);
+    if (id < 0) {
       throw new IllegalArgumentException("IAnimation object of given name not found.");
     } else {
-      animation.setShape(shapes.get(name));
-      if (animation.conflicts(this.animations)) {
+      ShapeTrack track = this.tracks.get(id);
+      animation.setShape(shapes.get(id));
+      if (track.conflicts(animation)) {
         throw new IllegalArgumentException("This animation conflicts with another one.");
       }
-      this.animations.add(animation);
+      this.insertAnimation(track, animation);
     }
   }
 
+  /**
+   * Adds a batch of animations in order, the i-th one to the shape of the name names[offset + i],
+   * the same way addAnimation does. The shape is only looked up once for every run of animations
+   * of the same shape, and room is made for the whole batch at once. Each animation is made just
+   * before it is added. If an animation cannot be added, the ones before it stay added.
+   *
+   * @param names      the names of the shapes of the animations
+   * @param offset     the index of the name of the first animation
+   * @param count      the number of animations to add
+   * @param animations makes the i-th animation of the batch
+   * @throws IllegalArgumentException if a shape is not found or an animation conflicts
+   */
+  void addAnimations(String[] names, int offset, int count, IntFunction<IAnimation> animations)
+          throws IllegalArgumentException {
+    this.animations.ensureCapacity(this.animations.size() + count);
+    this.extents.ensureCapacity(count);
+    String name = null;
+    ShapeTrack track = null;
+    IAnimShape shape = null;
+    for (int i = 0; i < count; i++) {
+      if (track == null || !name.equals(names[offset + i])) {
+        name = names[offset + i];
+        int id = this.symbols.idOf(name);
+        if (id < 0) {
+          throw new IllegalArgumentException("IAnimation object of given name not found.");
+        }
+        track = this.tracks.get(id);
+        shape = this.shapes.get(id);
+      }
+      IAnimation animation = animations.apply(i);
+      animation.setShape(shape);
+      if (track.conflicts(animation)) {
+        throw new IllegalArgumentException("This animation conflicts with another one.");
+      }
+      this.insertAnimation(track, animation);
+    }
+  }
+
+  /**
+   * Adds an animation that already belongs to its shape and is known not to conflict.
+   *
+   * @param track     the track of the shape of the animation
+   * @param animation the animation to add
+   */
+  private void insertAnimation(ShapeTrack track, IAnimation animation) {
+    this.animations.add(animation);
+    track.add(animation);
+    this.extents.addAnimation(animation);
+  }
+
   @Override
   public void skipTo(int time) {
-    for (IAnimation a : this.animations) {
-      a.apply(time);
+    for (int id = 0; id < this.tracks.size(); id++) {
+      this.tracks.get(id).seek(time);
     }
   }
 
   @Override
   public void rewind() {
-    for (String name : this.shapes.keySet()) {
-      this.shapes.get(name).changeInto(this.original.get(name));
+    for (int id = 0; id < this.shapes.size(); id++) {
+      this.shapes.get(id).changeInto(this.original.get(id));
     }
   }
 
@@ -213,6 +517,15 @@ public final class AnimationModel implements IAnimationModel<IAnimShape, IAnimat
     return new ArrayList<>(this.animations);
   }
 
+  @Override
+  public List<IAnimation> getAnimationsOf(String name) throws IllegalArgumentException {
+    int id = this.symbols.idOf(name);
+    if (id < 0) {
+      throw new IllegalArgumentException("IAnimation object of given name not found.");
+    }
+    return this.tracks.get(id).animations();
+  }
+
   @Override
   public HashMap<String, IAnimShape> getShapes() {
     HashMap<String, IAnimShape> toRet = new HashMap<>();
@@ -233,46 +546,70 @@ public final class AnimationModel implements IAnimationModel<IAnimShape, IAnimat
 
   @Override
   public List<List<IAnimShape>> getShapesListAllTicks() {
-    this.rewind();
-    List<List<IAnimShape>> list = new ArrayList<>();
-    for (int i = 0; i <= this.endTime(); i++) {
-      this.skipTo(i);
-      list.add(this.getShapesList());
+    List<Frame> frames = this.getFrames();
+    List<List<IAnimShape>> list = new ArrayList<>(frames.size());
+    for (Frame frame : frames) {
+      list.add(frame.getShapes());
     }
-    this.rewind();
     return list;
   }
 
-  /**
-   * Gets a copy of the list of shapes depend on their layers.
-   *
-   * @param layer the layer of the shape which is represented by the integer.
-   * @return a copy of the list of shapes depend on their layers.
-   */
-  private List<IAnimShape> getLayerCopy(int layer) {
-    List<IAnimShape> toRet = new ArrayList<>();
-    for (IAnimShape shape : layeredShapes.get(layer)) {
-      toRet.add(shape.copy());
+  @Override
+  public List<List<List<IAnimShape>>> getLayeredAllTicks() {
+    List<Frame> frames = this.getFrames();
+    List<List<List<IAnimShape>>> layeredAllTicks = new ArrayList<>(frames.size());
+    for (Frame frame : frames) {
+      layeredAllTicks.add(frame.getLayers());
     }
-    return toRet;
+    return layeredAllTicks;
   }
 
   @Override
-  public List<List<List<IAnimShape>>> getLayeredAllTicks() {
-    this.rewind();
-
-    List<Integer> layersList = this.layersList();
+  public List<Frame> getFrames() {
+    List<ShapeTrack> trackList = new ArrayList<>(this.tracks);
+    List<Integer> layers = this.layersList();
+    int[] layerOf = new int[this.shapesList.size()];
+    for (int i = 0; i < layerOf.length; i++) {
+      layerOf[i] = layers.indexOf(this.shapesList.get(i).getLayer());
+    }
+    int endTime = this.endTime();
+    List<Frame> frames = new ArrayList<>(endTime + 1);
+    Frame frame = null;
+    for (int i = 0; i <= endTime; i++) {
+      frame = Frame.next(frame, i, trackList, layerOf, layers.size());
+      frames.add(frame);
+    }
+    return frames;
+  }
 
-    List<List<List<IAnimShape>>> layeredAllTicks = new ArrayList<>();
-    for (int i = 0; i <= this.endTime(); i++) {
-      this.skipTo(i);
-      List<List<IAnimShape>> tickList = new ArrayList<>();
-      for (Integer layer : layersList) {
-        tickList.add(getLayerCopy(layer));
+  @Override
+  public List<List<IAnimShape>> getLayeredShapesAt(double tick) {
+    List<List<IAnimShape>> tickList = new ArrayList<>();
+    for (Integer layer : this.layersList()) {
+      List<IAnimShape> layerList = new ArrayList<>();
+      for (IAnimShape shape : layeredShapes.get(layer)) {
+        layerList.add(this.tracks.get(shape.getId()).sample(tick));
       }
-      layeredAllTicks.add(tickList);
+      tickList.add(layerList);
+    }
+    return tickList;
+  }
+
+  @Override
+  public List<IAnimShape> sampleAt(double tick) {
+    List<IAnimShape> toRet = new ArrayList<>();
+    for (IAnimShape shape : this.shapesList) {
+      toRet.add(this.tracks.get(shape.getId()).sample(tick));
+    }
+    return toRet;
+  }
+
+  @Override
+  public void sampleInto(List<IAnimShape> shapes, double tick) {
+    for (int i = 0; i < shapes.size(); i++) {
+      IAnimShape shape = shapes.get(i);
+      this.tracks.get(shape.getId()).sampleInto(shape, tick);
     }
-    return layeredAllTicks;
   }
 
   /**
@@ -296,7 +633,7 @@ public final class AnimationModel implements IAnimationModel<IAnimShape, IAnimat
     List<IAnimShape> toRet = new ArrayList<>();
     List<IAnimShape> shapes = sortLayerShapes(this.shapesList);
     for (IAnimShape s : shapes) {
-      toRet.add(original.get(s.getName()));
+      toRet.add(original.get(s.getId()));
     }
     return toRet;
   }
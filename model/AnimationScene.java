@@ -0,0 +1,57 @@
+package cs3500.animator.model;
+
+/**
+ * Everything read from an animation file: the model built from it along with the settings of the
+ * scene that are not part of the model, such as the background color.
+ *
+ * @param <T> the type of model
+ */
+public final class AnimationScene<T> {
+  private final T model;
+  private final float[] background;
+
+  /**
+   * Creates a scene with the given model and background.
+   *
+   * @param model      the model read from the file
+   * @param background the red, green and blue components of the background, each between 0 and 1,
+   *                   or null if the file does not set one
+   */
+  AnimationScene(T model, float[] background) {
+    if (background != null && background.length != 3) {
+      throw new IllegalArgumentException("The background needs three color components.");
+    }
+    this.model = model;
+    this.background = background == null ? null : background.clone();
+  }
+
+  /**
+   * Gets the model read from the file.
+   *
+   * @return the model
+   */
+  public T getModel() {
+    return this.model;
+  }
+
+  /**
+   * Gets the background color of the scene. It is white unless the file says otherwise.
+   *
+   * @return the red, green and blue components of the background, each between 0 and 1
+   */
+  public float[] getBackground() {
+    if (this.background == null) {
+      return new float[]{1, 1, 1};
+    }
+    return this.background.clone();
+  }
+
+  /**
+   * Checks if the file set the background color.
+   *
+   * @return true if the background was read from the file
+   */
+  public boolean hasBackground() {
+    return this.background != null;
+  }
+}
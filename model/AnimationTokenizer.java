@@ -0,0 +1,540 @@
+package cs3500.animator.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import cs3500.animator.model.util.SymbolTable;
+
+/**
+ * Splits an animation file into whitespace separated tokens, like a Scanner with its default
+ * delimiter, but without regular expressions. The input is read in large blocks of bytes, and
+ * numbers are parsed straight from those bytes, so most tokens never become Strings. The blocks are
+ * either read from a stream into a buffer or mapped straight from a file.
+ */
+final class AnimationTokenizer implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The size of the segments a file is mapped in, well below the 2 GB a buffer can hold.
+   */
+  private static final long SEGMENT_SIZE = 1L << 30;
+
+  /**
+   * The powers of ten that a float holds exactly.
+   */
+  private static final float[] POWERS_OF_TEN = {
+      1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+  };
+
+  private final Blocks blocks;
+  private ByteBuffer buffer;
+  private int pos;
+  private int limit;
+  private byte[] token;
+  private int tokenLength;
+  private final SymbolTable names;
+
+  /**
+   * Creates a tokenizer that reads from the given stream.
+   *
+   * @param in the stream to read the tokens from
+   */
+  AnimationTokenizer(InputStream in) {
+    this(new StreamBlocks(in));
+  }
+
+  /**
+   * Creates a tokenizer that reads the characters of the given reader. They are encoded as UTF-8 a
+   * block at a time, so that they can be tokenized the same way as bytes.
+   *
+   * @param in the reader to read the tokens from
+   */
+  AnimationTokenizer(Reader in) {
+    this(new ReaderBlocks(in));
+  }
+
+  /**
+   * Creates a tokenizer that maps the given file into memory, one segment at a time, and reads the
+   * tokens straight from the mapped bytes. Nothing is copied onto the heap but the tokens that are
+   * read as Strings, and the operating system takes care of paging the file in.
+   *
+   * @param channel the channel of the file to read the tokens from
+   */
+  AnimationTokenizer(FileChannel channel) {
+    this(new MappedBlocks(channel, 0, -1));
+  }
+
+  /**
+   * Creates a tokenizer that maps only the given range of the given file into memory, and reads the
+   * tokens of that range the same way.
+   *
+   * @param channel the channel of the file to read the tokens from
+   * @param start   the offset of the first byte to read
+   * @param end     the offset just past the last byte to read
+   */
+  AnimationTokenizer(FileChannel channel, long start, long end) {
+    this(new MappedBlocks(channel, start, end));
+  }
+
+  /**
+   * Creates a tokenizer that reads the bytes of the given buffer, from its position up to its limit.
+   *
+   * @param bytes the bytes to read the tokens from
+   */
+  AnimationTokenizer(ByteBuffer bytes) {
+    this(new SingleBlock(bytes));
+  }
+
+  /**
+   * Creates a tokenizer that reads from the given blocks.
+   *
+   * @param blocks the blocks of bytes to read the tokens from
+   */
+  private AnimationTokenizer(Blocks blocks) {
+    this.blocks = blocks;
+    this.buffer = null;
+    this.pos = 0;
+    this.limit = 0;
+    this.token = new byte[64];
+    this.tokenLength = 0;
+    this.names = new SymbolTable();
+  }
+
+  /**
+   * Checks if there is another token.
+   *
+   * @return true if there is another token
+   * @throws IllegalStateException if the input cannot be read
+   */
+  boolean hasNext() {
+    return this.skipWhitespace();
+  }
+
+  /**
+   * Reads the next token as a String.
+   *
+   * @return the next token
+   * @throws NoSuchElementException if there are no more tokens
+   * @throws IllegalStateException  if the input cannot be read
+   */
+  String next() {
+    this.readToken();
+    return this.tokenString();
+  }
+
+  /**
+   * Reads the next token as a name, such as a command, an attribute or the name of a shape. Names
+   * are interned, so every command about the same shape gets the very same String, and a name that
+   * was read before is not made into a new String again.
+   *
+   * @return the next token
+   * @throws NoSuchElementException if there are no more tokens
+   * @throws IllegalStateException  if the input cannot be read
+   */
+  String nextName() {
+    this.readToken();
+    return this.names.nameOf(this.names.intern(this.token, 0, this.tokenLength));
+  }
+
+  /**
+   * Reads the next token as an int.
+   *
+   * @return the next token as an int
+   * @throws InputMismatchException if the token is not an int
+   * @throws NoSuchElementException if there are no more tokens
+   * @throws IllegalStateException  if the input cannot be read
+   */
+  int nextInt() {
+    this.readToken();
+    int i = 0;
+    boolean negative = false;
+    if (this.token[0] == '-' || this.token[0] == '+') {
+      negative = this.token[0] == '-';
+      i++;
+    }
+    if (i == this.tokenLength) {
+      throw new InputMismatchException(this.tokenString());
+    }
+    long value = 0;
+    for (; i < this.tokenLength; i++) {
+      int digit = this.token[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw new InputMismatchException(this.tokenString());
+      }
+      value = value * 10 + digit;
+      if (value > (long) Integer.MAX_VALUE + 1) {
+        throw new InputMismatchException(this.tokenString());
+      }
+    }
+    value = negative ? -value : value;
+    if (value > Integer.MAX_VALUE) {
+      throw new InputMismatchException(this.tokenString());
+    }
+    return (int) value;
+  }
+
+  /**
+   * Reads the next token as a float. Plain decimals with few significant digits, which is what
+   * animation files are made of, are computed directly with a single correctly rounded float
+   * operation. Anything else is left to Float.parseFloat, so the result is always the same as that
+   * of Scanner.nextFloat.
+   *
+   * @return the next token as a float
+   * @throws InputMismatchException if the token is not a float
+   * @throws NoSuchElementException if there are no more tokens
+   * @throws IllegalStateException  if the input cannot be read
+   */
+  float nextFloat() {
+    this.readToken();
+    int i = 0;
+    boolean negative = false;
+    if (this.token[0] == '-' || this.token[0] == '+') {
+      negative = this.token[0] == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int exponent = 0;
+    int digits = 0;
+    boolean point = false;
+    for (; i < this.tokenLength; i++) {
+      byte b = this.token[i];
+      if (b >= '0' && b <= '9') {
+        if (mantissa < 100_000_000_000_000_000L) {
+          mantissa = mantissa * 10 + (b - '0');
+          if (point) {
+            exponent--;
+          }
+        } else if (!point) {
+          exponent++;
+        }
+        digits++;
+      } else if (b == '.' && !point) {
+        point = true;
+      } else {
+        break;
+      }
+    }
+    if (digits == 0) {
+      return this.parseFloatSlowly();
+    }
+    if (i < this.tokenLength) {
+      if (this.token[i] != 'e' && this.token[i] != 'E') {
+        return this.parseFloatSlowly();
+      }
+      i++;
+      boolean negativeExponent = false;
+      if (i < this.tokenLength && (this.token[i] == '-' || this.token[i] == '+')) {
+        negativeExponent = this.token[i] == '-';
+        i++;
+      }
+      if (i == this.tokenLength) {
+        return this.parseFloatSlowly();
+      }
+      int explicit = 0;
+      for (; i < this.tokenLength; i++) {
+        int digit = this.token[i] - '0';
+        if (digit < 0 || digit > 9 || explicit > 1000) {
+          return this.parseFloatSlowly();
+        }
+        explicit = explicit * 10 + digit;
+      }
+      exponent += negativeExponent ? -explicit : explicit;
+    }
+    if (mantissa == 0) {
+      return negative ? -0.0f : 0.0f;
+    }
+    while (mantissa % 10 == 0) {
+      mantissa /= 10;
+      exponent++;
+    }
+    if (mantissa >= (1 << 24) || exponent < -10 || exponent > 10) {
+      return this.parseFloatSlowly();
+    }
+    // both operands are exact floats, so the one operation rounds correctly
+    float value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+            : mantissa * POWERS_OF_TEN[exponent];
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses the current token with Float.parseFloat. That also takes a type suffix, as in 1f or 2d,
+   * and hexadecimal floats without a point, as in 0x1p3, which Scanner.nextFloat does not, so those
+   * are rejected first. Scanner only takes a hexadecimal float with a hexadecimal digit after its
+   * point, as in 0x1.8p1.
+   *
+   * @return the current token as a float
+   * @throws InputMismatchException if the token is not a float
+   */
+  private float parseFloatSlowly() {
+    String text = this.tokenString();
+    byte last = this.token[this.tokenLength - 1];
+    if (last == 'f' || last == 'F' || last == 'd' || last == 'D') {
+      throw new InputMismatchException(text);
+    }
+    if (text.indexOf('x') >= 0 || text.indexOf('X') >= 0) {
+      int point = text.indexOf('.');
+      if (point < 0 || point + 1 == text.length()
+              || Character.digit(text.charAt(point + 1), 16) < 0) {
+        throw new InputMismatchException(text);
+      }
+    }
+    try {
+      return Float.parseFloat(text);
+    } catch (NumberFormatException e) {
+      throw new InputMismatchException(text);
+    }
+  }
+
+  /**
+   * Closes the underlying stream or file.
+   *
+   * @throws IllegalStateException if the stream or file cannot be closed
+   */
+  @Override
+  public void close() {
+    try {
+      this.blocks.close();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not close the animation file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Copies the next token into the token buffer.
+   *
+   * @throws NoSuchElementException if there are no more tokens
+   */
+  private void readToken() {
+    if (!this.skipWhitespace()) {
+      throw new NoSuchElementException();
+    }
+    this.tokenLength = 0;
+    while (this.pos < this.limit || this.fill()) {
+      byte b = this.buffer.get(this.pos);
+      if (isWhitespace(b)) {
+        break;
+      }
+      if (this.tokenLength == this.token.length) {
+        this.token = Arrays.copyOf(this.token, 2 * this.tokenLength);
+      }
+      this.token[this.tokenLength++] = b;
+      this.pos++;
+    }
+  }
+
+  /**
+   * Gets the current token as a String.
+   *
+   * @return the current token
+   */
+  private String tokenString() {
+    return new String(this.token, 0, this.tokenLength, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Skips to the start of the next token.
+   *
+   * @return false if the end of the input was reached first
+   */
+  private boolean skipWhitespace() {
+    while (this.pos < this.limit || this.fill()) {
+      if (!isWhitespace(this.buffer.get(this.pos))) {
+        return true;
+      }
+      this.pos++;
+    }
+    return false;
+  }
+
+  /**
+   * Moves on to the next block of the input.
+   *
+   * @return false if the end of the input was reached
+   * @throws IllegalStateException if the input cannot be read
+   */
+  private boolean fill() {
+    try {
+      ByteBuffer next = this.blocks.next();
+      this.pos = 0;
+      this.limit = 0;
+      if (next == null) {
+        return false;
+      }
+      this.buffer = next;
+      this.limit = next.limit();
+      return this.limit > 0;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the animation file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks if the given byte is one of the ASCII characters that Java counts as whitespace.
+   *
+   * @param b the byte to check
+   * @return true if it is whitespace
+   */
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+  }
+
+  /**
+   * The input of a tokenizer, as a series of blocks of bytes.
+   */
+  private interface Blocks extends Closeable {
+    /**
+     * Gets the next block of the input. The block before it is not used anymore.
+     *
+     * @return the next block, from position 0 up to its limit, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    ByteBuffer next() throws IOException;
+  }
+
+  /**
+   * Blocks read from a stream into one reused buffer.
+   */
+  private static final class StreamBlocks implements Blocks {
+    private final InputStream in;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+
+    private StreamBlocks(InputStream in) {
+      this.in = in;
+      this.bytes = new byte[BUFFER_SIZE];
+      this.buffer = ByteBuffer.wrap(this.bytes);
+    }
+
+    @Override
+    public ByteBuffer next() throws IOException {
+      int read = this.in.read(this.bytes, 0, this.bytes.length);
+      if (read < 0) {
+        return null;
+      }
+      this.buffer.clear();
+      this.buffer.limit(read);
+      return this.buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.in.close();
+    }
+  }
+
+  /**
+   * Blocks of characters read from a reader, encoded as UTF-8 into one reused buffer.
+   */
+  private static final class ReaderBlocks implements Blocks {
+    private final Reader in;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private final CharsetEncoder encoder;
+    private boolean ended;
+
+    private ReaderBlocks(Reader in) {
+      this.in = in;
+      this.chars = CharBuffer.allocate(BUFFER_SIZE / 4);
+      this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+      this.encoder = StandardCharsets.UTF_8.newEncoder()
+              .onMalformedInput(CodingErrorAction.REPLACE)
+              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      this.ended = false;
+    }
+
+    @Override
+    public ByteBuffer next() throws IOException {
+      this.bytes.clear();
+      while (this.bytes.position() == 0) {
+        if (!this.ended) {
+          this.ended = this.in.read(this.chars) < 0;
+        } else if (this.chars.position() == 0) {
+          return null;
+        }
+        // the characters that did not fit, or half of a surrogate pair, stay for the next block
+        this.chars.flip();
+        this.encoder.encode(this.chars, this.bytes, this.ended);
+        this.chars.compact();
+        if (this.ended && this.chars.position() == 0) {
+          this.encoder.flush(this.bytes);
+        }
+      }
+      this.bytes.flip();
+      return this.bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.in.close();
+    }
+  }
+
+  /**
+   * The remaining bytes of a single buffer as the only block.
+   */
+  private static final class SingleBlock implements Blocks {
+    private ByteBuffer bytes;
+
+    private SingleBlock(ByteBuffer bytes) {
+      this.bytes = bytes.slice();
+    }
+
+    @Override
+    public ByteBuffer next() {
+      ByteBuffer block = this.bytes;
+      this.bytes = null;
+      return block;
+    }
+
+    @Override
+    public void close() {
+      this.bytes = null;
+    }
+  }
+
+  /**
+   * Blocks mapped from a file, each one a segment of at most SEGMENT_SIZE bytes.
+   */
+  private static final class MappedBlocks implements Blocks {
+    private final FileChannel channel;
+    private final long end;
+    private long mapped;
+
+    /**
+     * Maps the given range of the file, or everything from the start on if end is negative.
+     */
+    private MappedBlocks(FileChannel channel, long start, long end) {
+      this.channel = channel;
+      this.end = end;
+      this.mapped = start;
+    }
+
+    @Override
+    public ByteBuffer next() throws IOException {
+      long end = this.end < 0 ? this.channel.size() : this.end;
+      long size = Math.min(SEGMENT_SIZE, end - this.mapped);
+      if (size <= 0) {
+        return null;
+      }
+      ByteBuffer segment = this.channel.map(FileChannel.MapMode.READ_ONLY, this.mapped, size);
+      this.mapped += size;
+      return segment;
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.channel.close();
+    }
+  }
+}
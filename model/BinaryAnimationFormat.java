@@ -0,0 +1,87 @@
+package cs3500.animator.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The constants of the binary animation format. A binary animation file holds everything a text
+ * animation file can, but stores it in columns of fixed size values, so that it is read with a few
+ * bulk copies instead of being parsed token by token. All values are big endian. A file is laid out
+ * as follows:
+ *
+ * <pre>
+ * header       MAGIC, int VERSION, int flags (FLAG_BACKGROUND if the background is set)
+ * background   float red, float green, float blue
+ * shapes       int n, int[n] name lengths, byte[] UTF-8 names, byte[n] kinds, int[n] layers,
+ *              int[n] appearance ticks, int[n] disappearance ticks,
+ *              float[SHAPE_VALUES * n] x, y, width or x radius, height or y radius, red, green, blue
+ * animations   int m, byte[m] kinds, int[m] indices into the shapes, int[m] start ticks,
+ *              int[m] end ticks, int k, float[k] the from values followed by the to values of each
+ *              animation, MOVE_VALUES, COLOR_VALUES or SCALE_VALUES of them depending on its kind
+ * </pre>
+ *
+ * <p>Animations are stored in the order they were added, so a model read back has the same order
+ * as the one that was written.
+ */
+final class BinaryAnimationFormat {
+  /**
+   * The bytes every binary animation file starts with. The first one is not ASCII, so a text
+   * animation file can never start with them.
+   */
+  static final byte[] MAGIC = {(byte) 0x89, 'E', 'A', 'N'};
+  static final int VERSION = 1;
+  static final int FLAG_BACKGROUND = 1;
+
+  static final byte RECTANGLE = 0;
+  static final byte OVAL = 1;
+  static final int SHAPE_VALUES = 7;
+
+  static final byte MOVE = 0;
+  static final byte COLOR = 1;
+  static final byte SCALE = 2;
+  static final int MOVE_VALUES = 4;
+  static final int COLOR_VALUES = 6;
+  static final int SCALE_VALUES = 4;
+
+  private BinaryAnimationFormat() {
+    // only constants
+  }
+
+  /**
+   * Gets the number of values stored for an animation of the given kind.
+   *
+   * @param kind the kind of animation
+   * @return the number of from and to values of the animation
+   * @throws IllegalStateException if the kind is unknown
+   */
+  static int valuesOf(byte kind) {
+    switch (kind) {
+      case MOVE:
+        return MOVE_VALUES;
+      case COLOR:
+        return COLOR_VALUES;
+      case SCALE:
+        return SCALE_VALUES;
+      default:
+        throw new IllegalStateException("Unknown kind of animation: " + kind);
+    }
+  }
+
+  /**
+   * Checks if the given bytes start with the MAGIC bytes. The position of the buffer is not
+   * changed.
+   *
+   * @param bytes the bytes to check
+   * @return true if they are the start of a binary animation file
+   */
+  static boolean startsWithMagic(ByteBuffer bytes) {
+    if (bytes.remaining() < MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (bytes.get(bytes.position() + i) != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,288 @@
+package cs3500.animator.model;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import cs3500.animator.model.util.TweenModelBuilder;
+
+/**
+ * Reads animation files written in the binary animation format described in
+ * BinaryAnimationFormat. The file is memory mapped and each of its columns is copied out with a
+ * single bulk copy, after which the model is built from the arrays, with the animations given to
+ * the builder in batches. The AnimationFileReader hands
+ * binary files to this reader on its own, so it only has to be used directly when a file is known
+ * to be binary.
+ */
+public final class BinaryAnimationReader {
+
+  /**
+   * Read the binary animation file and use the builder to build a model.
+   *
+   * @param fileName the path of the file to be read
+   * @param builder  the builder used to build the model
+   * @param <T>      the type of model
+   * @return the model
+   * @throws FileNotFoundException if the specified file cannot be read
+   * @throws IllegalStateException if the file is not a valid binary animation file
+   */
+  public <T> T readFile(String fileName, TweenModelBuilder<T> builder) throws
+          FileNotFoundException, IllegalStateException {
+    return readScene(fileName, builder).getModel();
+  }
+
+  /**
+   * Read the binary animation file, using the builder to build a model and keeping the background
+   * color of the scene.
+   *
+   * @param fileName the path of the file to be read
+   * @param builder  the builder used to build the model
+   * @param <T>      the type of model
+   * @return the model along with the settings of the scene
+   * @throws FileNotFoundException if the specified file cannot be read
+   * @throws IllegalStateException if the file is not a valid binary animation file
+   */
+  public <T> AnimationScene<T> readScene(String fileName, TweenModelBuilder<T> builder) throws
+          FileNotFoundException, IllegalStateException {
+    try (FileChannel channel = new RandomAccessFile(fileName, "r").getChannel()) {
+      return read(channel, builder);
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the animation file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Read an animation in the binary format from the whole file of the given channel, mapped into
+   * memory, and use the builder to build a model. The channel is not closed.
+   *
+   * @param channel the channel of the file to be read
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws IOException           if the file cannot be mapped
+   * @throws IllegalStateException if the file is not a valid binary animation file
+   */
+  <T> AnimationScene<T> read(FileChannel channel, TweenModelBuilder<T> builder) throws
+          IOException, IllegalStateException {
+    if (channel.size() > Integer.MAX_VALUE) {
+      throw new IllegalStateException("The binary animation file is too large.");
+    }
+    return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), builder);
+  }
+
+  /**
+   * Read an animation in the binary format from the given bytes and use the builder to build a
+   * model.
+   *
+   * @param bytes   the bytes of the file, from its position up to its limit
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws IllegalStateException if the bytes are not a valid binary animation file
+   */
+  <T> AnimationScene<T> read(ByteBuffer bytes, TweenModelBuilder<T> builder) throws
+          IllegalStateException {
+    try {
+      float[] background = readHeader(bytes);
+
+      int shapeCount = readCount(bytes,
+              4 + 1 + 3 * 4 + BinaryAnimationFormat.SHAPE_VALUES * 4);
+      int[] nameLengths = getInts(bytes, shapeCount);
+      String[] names = new String[shapeCount];
+      byte[] name = new byte[64];
+      for (int i = 0; i < shapeCount; i++) {
+        if (nameLengths[i] < 0 || nameLengths[i] > bytes.remaining()) {
+          throw new IllegalStateException("The binary animation file is corrupt.");
+        }
+        if (nameLengths[i] > name.length) {
+          name = new byte[nameLengths[i]];
+        }
+        bytes.get(name, 0, nameLengths[i]);
+        names[i] = new String(name, 0, nameLengths[i], StandardCharsets.UTF_8);
+      }
+      byte[] shapeKinds = getBytes(bytes, shapeCount);
+      int[] layers = getInts(bytes, shapeCount);
+      int[] appears = getInts(bytes, shapeCount);
+      int[] disappears = getInts(bytes, shapeCount);
+      float[] shapeValues = getFloats(bytes, shapeCount * BinaryAnimationFormat.SHAPE_VALUES);
+
+      int animationCount = readCount(bytes, 1 + 3 * 4);
+      byte[] animationKinds = getBytes(bytes, animationCount);
+      int[] shapes = getInts(bytes, animationCount);
+      int[] starts = getInts(bytes, animationCount);
+      int[] ends = getInts(bytes, animationCount);
+      int valueCount = readCount(bytes, 4);
+      float[] animationValues = getFloats(bytes, valueCount);
+
+      for (int i = 0; i < shapeCount; i++) {
+        int v = i * BinaryAnimationFormat.SHAPE_VALUES;
+        switch (shapeKinds[i]) {
+          case BinaryAnimationFormat.RECTANGLE:
+            builder.addRectangle(names[i], shapeValues[v], shapeValues[v + 1],
+                    shapeValues[v + 2], shapeValues[v + 3],
+                    shapeValues[v + 4], shapeValues[v + 5], shapeValues[v + 6],
+                    appears[i], disappears[i], layers[i]);
+            break;
+          case BinaryAnimationFormat.OVAL:
+            builder.addOval(names[i], shapeValues[v], shapeValues[v + 1],
+                    shapeValues[v + 2], shapeValues[v + 3],
+                    shapeValues[v + 4], shapeValues[v + 5], shapeValues[v + 6],
+                    appears[i], disappears[i], layers[i]);
+            break;
+          default:
+            throw new IllegalStateException("Unknown kind of shape: " + shapeKinds[i]);
+        }
+      }
+
+      // animations of the same kind that follow each other are given to the builder as a batch
+      String[] animationNames = new String[animationCount];
+      int v = 0;
+      int i = 0;
+      while (i < animationCount) {
+        byte kind = animationKinds[i];
+        int j = i;
+        while (j < animationCount && animationKinds[j] == kind) {
+          if (shapes[j] < 0 || shapes[j] >= shapeCount) {
+            throw new IllegalStateException("The binary animation file is corrupt.");
+          }
+          animationNames[j] = names[shapes[j]];
+          j++;
+        }
+        int values = BinaryAnimationFormat.valuesOf(kind);
+        if (v + (long) (j - i) * values > valueCount) {
+          throw new IllegalStateException("The binary animation file is corrupt.");
+        }
+        switch (kind) {
+          case BinaryAnimationFormat.MOVE:
+            builder.addMoves(animationNames, starts, ends, i, animationValues, v, j - i);
+            break;
+          case BinaryAnimationFormat.COLOR:
+            builder.addColorChanges(animationNames, starts, ends, i, animationValues, v, j - i);
+            break;
+          default:
+            builder.addScaleToChanges(animationNames, starts, ends, i, animationValues, v, j - i);
+            break;
+        }
+        v += (j - i) * values;
+        i = j;
+      }
+      return new AnimationScene<>(builder.build(), background);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalStateException("The binary animation file is cut short.");
+    }
+  }
+
+  /**
+   * Reads only the background color of the binary animation file.
+   *
+   * @param fileName the path of the file to be read
+   * @return the red, green and blue components of the background, white if the file does not set
+   *         one
+   * @throws FileNotFoundException if the specified file cannot be read
+   * @throws IllegalStateException if the file is not a valid binary animation file
+   */
+  public float[] getBackground(String fileName) throws
+          FileNotFoundException, IllegalStateException {
+    try (FileChannel channel = new RandomAccessFile(fileName, "r").getChannel()) {
+      return getBackground(channel);
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the animation file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Reads only the background color from the header of the file of the given channel, which is
+   * read from its start. The channel is not closed.
+   *
+   * @param channel the channel of the file to be read
+   * @return the components of the background color of the file, or white if it does not set
+   *         one
+   * @throws IOException           if the file cannot be read
+   * @throws IllegalStateException if the file is not a valid binary animation file
+   */
+  float[] getBackground(FileChannel channel) throws IOException, IllegalStateException {
+    ByteBuffer header = ByteBuffer.allocate(BinaryAnimationFormat.MAGIC.length + 4 * 5);
+    while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+      // read the whole header
+    }
+    header.flip();
+    try {
+      float[] background = readHeader(header);
+      return background == null ? new float[]{1, 1, 1} : background;
+    } catch (BufferUnderflowException e) {
+      throw new IllegalStateException("The binary animation file is cut short.");
+    }
+  }
+
+  /**
+   * Reads the header and the background color.
+   *
+   * @param bytes the bytes of the file, at its start
+   * @return the background color, or null if the file does not set one
+   * @throws IllegalStateException if the bytes are not of a binary animation file of a known
+   *                               version
+   */
+  private static float[] readHeader(ByteBuffer bytes) {
+    if (!BinaryAnimationFormat.startsWithMagic(bytes)) {
+      throw new IllegalStateException("Not a binary animation file.");
+    }
+    bytes.position(bytes.position() + BinaryAnimationFormat.MAGIC.length);
+    int version = bytes.getInt();
+    if (version != BinaryAnimationFormat.VERSION) {
+      throw new IllegalStateException("Unsupported version of the binary animation format: "
+              + version);
+    }
+    int flags = bytes.getInt();
+    float[] background = getFloats(bytes, 3);
+    return (flags & BinaryAnimationFormat.FLAG_BACKGROUND) != 0 ? background : null;
+  }
+
+  /**
+   * Reads the number of items in the next column, checking that that many items of the given
+   * size can be left in the file.
+   */
+  private static int readCount(ByteBuffer bytes, int itemSize) {
+    int count = bytes.getInt();
+    if (count < 0 || (long) count * itemSize > bytes.remaining()) {
+      throw new IllegalStateException("The binary animation file is corrupt.");
+    }
+    return count;
+  }
+
+  /**
+   * Copies the next count bytes out of the buffer.
+   */
+  private static byte[] getBytes(ByteBuffer bytes, int count) {
+    byte[] values = new byte[count];
+    bytes.get(values);
+    return values;
+  }
+
+  /**
+   * Copies the next count ints out of the buffer, and moves its position past them.
+   */
+  private static int[] getInts(ByteBuffer bytes, int count) {
+    int[] values = new int[count];
+    bytes.asIntBuffer().get(values);
+    bytes.position(bytes.position() + 4 * count);
+    return values;
+  }
+
+  /**
+   * Copies the next count floats out of the buffer, and moves its position past them.
+   */
+  private static float[] getFloats(ByteBuffer bytes, int count) {
+    float[] values = new float[count];
+    bytes.asFloatBuffer().get(values);
+    bytes.position(bytes.position() + 4 * count);
+    return values;
+  }
+}
@@ -0,0 +1,318 @@
+package cs3500.animator.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cs3500.animator.model.animation.IAnimation;
+import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.util.TweenModelBuilder;
+
+/**
+ * Writes animations in the binary animation format described in BinaryAnimationFormat. The writer
+ * is a builder itself: everything given to it is collected in columns, and written out at once by
+ * writeTo. A whole model can be added with addModel, or a text animation file can be converted
+ * without building a model at all by giving the writer to an AnimationFileReader.
+ */
+public final class BinaryAnimationWriter implements TweenModelBuilder<BinaryAnimationWriter> {
+  private final List<byte[]> names;
+  private final Map<String, Integer> indices;
+  private byte[] shapeKinds;
+  private int[] layers;
+  private int[] appears;
+  private int[] disappears;
+  private float[] shapeValues;
+  private int shapeCount;
+
+  private byte[] animationKinds;
+  private int[] shapes;
+  private int[] starts;
+  private int[] ends;
+  private float[] animationValues;
+  private int animationCount;
+  private int valueCount;
+
+  private float[] background;
+
+  /**
+   * Creates a writer with nothing in it.
+   */
+  public BinaryAnimationWriter() {
+    this.names = new ArrayList<>();
+    this.indices = new HashMap<>();
+    this.shapeKinds = new byte[16];
+    this.layers = new int[16];
+    this.appears = new int[16];
+    this.disappears = new int[16];
+    this.shapeValues = new float[16 * BinaryAnimationFormat.SHAPE_VALUES];
+    this.animationKinds = new byte[16];
+    this.shapes = new int[16];
+    this.starts = new int[16];
+    this.ends = new int[16];
+    this.animationValues = new float[16 * BinaryAnimationFormat.COLOR_VALUES];
+    this.background = null;
+  }
+
+  /**
+   * Adds all of the shapes of the given model in their initial states, followed by all of its
+   * animations in the order they were added to the model.
+   *
+   * @param model the model to add
+   * @return this writer
+   * @throws IllegalArgumentException if the model has a shape that is neither a rectangle nor an
+   *                                  oval
+   */
+  public BinaryAnimationWriter addModel(
+          IAnimationModelReadOnly<? extends IAnimShape, ? extends IAnimation> model) {
+    Map<String, IAnimShape> original = new HashMap<>();
+    for (IAnimShape s : model.getOriginalShapesList()) {
+      original.put(s.getName(), s);
+    }
+    for (IAnimShape current : model.getShapesList()) {
+      IAnimShape s = original.get(current.getName());
+      double[] dims = s.allDimensions();
+      float[] color = s.getColor().getRGBColorComponents(null);
+      byte kind;
+      switch (s.getShape().getType()) {
+        case "rectangle":
+          kind = BinaryAnimationFormat.RECTANGLE;
+          break;
+        case "oval":
+          kind = BinaryAnimationFormat.OVAL;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown kind of shape: " + s.getShape().getType());
+      }
+      this.addShape(kind, s.getName(), (float) s.getPos().getX(), (float) s.getPos().getY(),
+              (float) dims[0], (float) dims[1], color[0], color[1], color[2],
+              s.getAppears(), s.getDisappears(), s.getLayer());
+    }
+    for (IAnimation a : model.getAnimations()) {
+      a.addTo(this);
+    }
+    return this;
+  }
+
+  /**
+   * Sets the background color of the animation.
+   *
+   * @param red   the red component, between 0 and 1
+   * @param green the green component, between 0 and 1
+   * @param blue  the blue component, between 0 and 1
+   * @return this writer
+   */
+  public BinaryAnimationWriter setBackground(float red, float green, float blue) {
+    this.background = new float[]{red, green, blue};
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<BinaryAnimationWriter> addOval(String name, float cx, float cy,
+                                                          float xRadius, float yRadius,
+                                                          float red, float green, float blue,
+                                                          int startOfLife, int endOfLife) {
+    return this.addOval(name, cx, cy, xRadius, yRadius, red, green, blue,
+            startOfLife, endOfLife, 0);
+  }
+
+  @Override
+  public TweenModelBuilder<BinaryAnimationWriter> addOval(String name, float cx, float cy,
+                                                          float xRadius, float yRadius,
+                                                          float red, float green, float blue,
+                                                          int startOfLife, int endOfLife,
+                                                          int layer) {
+    this.addShape(BinaryAnimationFormat.OVAL, name, cx, cy, xRadius, yRadius, red, green, blue,
+            startOfLife, endOfLife, layer);
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<BinaryAnimationWriter> addRectangle(String name, float lx, float ly,
+                                                               float width, float height,
+                                                               float red, float green, float blue,
+                                                               int startOfLife, int endOfLife) {
+    return this.addRectangle(name, lx, ly, width, height, red, green, blue,
+            startOfLife, endOfLife, 0);
+  }
+
+  @Override
+  public TweenModelBuilder<BinaryAnimationWriter> addRectangle(String name, float lx, float ly,
+                                                               float width, float height,
+                                                               float red, float green, float blue,
+                                                               int startOfLife, int endOfLife,
+                                                               int layer) {
+    this.addShape(BinaryAnimationFormat.RECTANGLE, name, lx, ly, width, height, red, green, blue,
+            startOfLife, endOfLife, layer);
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<BinaryAnimationWriter> addMove(String name,
+                                                          float moveFromX, float moveFromY,
+                                                          float moveToX, float moveToY,
+                                                          int startTime, int endTime) {
+    this.addAnimation(BinaryAnimationFormat.MOVE, name, startTime, endTime,
+            moveFromX, moveFromY, moveToX, moveToY);
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<BinaryAnimationWriter> addColorChange(String name,
+                                                                 float oldR, float oldG,
+                                                                 float oldB, float newR,
+                                                                 float newG, float newB,
+                                                                 int startTime, int endTime) {
+    this.addAnimation(BinaryAnimationFormat.COLOR, name, startTime, endTime,
+            oldR, oldG, oldB, newR, newG, newB);
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<BinaryAnimationWriter> addScaleToChange(String name,
+                                                                   float fromSx, float fromSy,
+                                                                   float toSx, float toSy,
+                                                                   int startTime, int endTime) {
+    this.addAnimation(BinaryAnimationFormat.SCALE, name, startTime, endTime,
+            fromSx, fromSy, toSx, toSy);
+    return this;
+  }
+
+  @Override
+  public BinaryAnimationWriter build() {
+    return this;
+  }
+
+  /**
+   * Writes everything added so far to the given stream. The stream is flushed but not closed.
+   *
+   * @param out the stream to write to
+   * @throws IOException if the stream cannot be written to
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    int nameBytes = 0;
+    for (byte[] name : this.names) {
+      nameBytes += name.length;
+    }
+    int size = BinaryAnimationFormat.MAGIC.length + 4 + 4 + 3 * 4
+            + 4 + this.shapeCount * (4 + 1 + 3 * 4 + BinaryAnimationFormat.SHAPE_VALUES * 4)
+            + nameBytes
+            + 4 + this.animationCount * (1 + 3 * 4) + 4 + this.valueCount * 4;
+    ByteBuffer bytes = ByteBuffer.allocate(size);
+
+    bytes.put(BinaryAnimationFormat.MAGIC);
+    bytes.putInt(BinaryAnimationFormat.VERSION);
+    bytes.putInt(this.background == null ? 0 : BinaryAnimationFormat.FLAG_BACKGROUND);
+    float[] bg = this.background == null ? new float[]{1, 1, 1} : this.background;
+    putFloats(bytes, bg, bg.length);
+
+    bytes.putInt(this.shapeCount);
+    for (byte[] name : this.names) {
+      bytes.putInt(name.length);
+    }
+    for (byte[] name : this.names) {
+      bytes.put(name);
+    }
+    bytes.put(this.shapeKinds, 0, this.shapeCount);
+    putInts(bytes, this.layers, this.shapeCount);
+    putInts(bytes, this.appears, this.shapeCount);
+    putInts(bytes, this.disappears, this.shapeCount);
+    putFloats(bytes, this.shapeValues, this.shapeCount * BinaryAnimationFormat.SHAPE_VALUES);
+
+    bytes.putInt(this.animationCount);
+    bytes.put(this.animationKinds, 0, this.animationCount);
+    putInts(bytes, this.shapes, this.animationCount);
+    putInts(bytes, this.starts, this.animationCount);
+    putInts(bytes, this.ends, this.animationCount);
+    bytes.putInt(this.valueCount);
+    putFloats(bytes, this.animationValues, this.valueCount);
+
+    out.write(bytes.array(), 0, bytes.position());
+    out.flush();
+  }
+
+  /**
+   * Adds a row to the shape columns.
+   */
+  private void addShape(byte kind, String name, float x, float y, float width, float height,
+                        float red, float green, float blue,
+                        int startOfLife, int endOfLife, int layer) {
+    if (this.shapeCount == this.shapeKinds.length) {
+      int capacity = 2 * this.shapeCount;
+      this.shapeKinds = Arrays.copyOf(this.shapeKinds, capacity);
+      this.layers = Arrays.copyOf(this.layers, capacity);
+      this.appears = Arrays.copyOf(this.appears, capacity);
+      this.disappears = Arrays.copyOf(this.disappears, capacity);
+      this.shapeValues = Arrays.copyOf(this.shapeValues,
+              capacity * BinaryAnimationFormat.SHAPE_VALUES);
+    }
+    int i = this.shapeCount++;
+    this.names.add(name.getBytes(StandardCharsets.UTF_8));
+    this.indices.put(name, i);
+    this.shapeKinds[i] = kind;
+    this.layers[i] = layer;
+    this.appears[i] = startOfLife;
+    this.disappears[i] = endOfLife;
+    int v = i * BinaryAnimationFormat.SHAPE_VALUES;
+    this.shapeValues[v] = x;
+    this.shapeValues[v + 1] = y;
+    this.shapeValues[v + 2] = width;
+    this.shapeValues[v + 3] = height;
+    this.shapeValues[v + 4] = red;
+    this.shapeValues[v + 5] = green;
+    this.shapeValues[v + 6] = blue;
+  }
+
+  /**
+   * Adds a row to the animation columns, and its values to the end of the values.
+   *
+   * @throws IllegalArgumentException if no shape of the given name was added before
+   */
+  private void addAnimation(byte kind, String name, int start, int end, float... values) {
+    Integer shape = this.indices.get(name);
+    if (shape == null) {
+      throw new IllegalArgumentException("IAnimation object of given name not found.");
+    }
+    if (this.animationCount == this.animationKinds.length) {
+      int capacity = 2 * this.animationCount;
+      this.animationKinds = Arrays.copyOf(this.animationKinds, capacity);
+      this.shapes = Arrays.copyOf(this.shapes, capacity);
+      this.starts = Arrays.copyOf(this.starts, capacity);
+      this.ends = Arrays.copyOf(this.ends, capacity);
+    }
+    if (this.valueCount + values.length > this.animationValues.length) {
+      this.animationValues = Arrays.copyOf(this.animationValues,
+              Math.max(2 * this.animationValues.length, this.valueCount + values.length));
+    }
+    int i = this.animationCount++;
+    this.animationKinds[i] = kind;
+    this.shapes[i] = shape;
+    this.starts[i] = start;
+    this.ends[i] = end;
+    System.arraycopy(values, 0, this.animationValues, this.valueCount, values.length);
+    this.valueCount += values.length;
+  }
+
+  /**
+   * Copies the first count ints of the given array into the buffer at its position, and moves the
+   * position past them.
+   */
+  private static void putInts(ByteBuffer bytes, int[] values, int count) {
+    bytes.asIntBuffer().put(values, 0, count);
+    bytes.position(bytes.position() + 4 * count);
+  }
+
+  /**
+   * Copies the first count floats of the given array into the buffer at its position, and moves
+   * the position past them.
+   */
+  private static void putFloats(ByteBuffer bytes, float[] values, int count) {
+    bytes.asFloatBuffer().put(values, 0, count);
+    bytes.position(bytes.position() + 4 * count);
+  }
+}
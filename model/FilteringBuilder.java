@@ -0,0 +1,322 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import cs3500.animator.model.util.SymbolTable;
+import cs3500.animator.model.util.TweenModelBuilder;
+
+/**
+ * A builder that passes on to another builder only the calls selected by some ReaderOptions, and
+ * drops the rest before anything is made for them. Whether a shape was selected is kept per name
+ * id, so the animations of a shape that was not are dropped with an array read. Of the animations
+ * that ended before the tick window, only the last one of each kind on each shape is kept, and
+ * those are passed on in file order when the model is built, since only then is it known which one
+ * is the last.
+ *
+ * @param <T> the type of model
+ */
+final class FilteringBuilder<T> implements TweenModelBuilder<T> {
+  private static final byte UNKNOWN = 0;
+  private static final byte SELECTED = 1;
+  private static final byte DROPPED = 2;
+
+  private static final int SKIP = 0;
+  private static final int PASS = 1;
+  private static final int DEFER = 2;
+
+  private static final byte MOVE = 0;
+  private static final byte COLOR = 1;
+  private static final byte SCALE = 2;
+  private static final int KINDS = 3;
+
+  private final TweenModelBuilder<T> builder;
+  private final ReaderOptions options;
+  private SymbolTable names;
+  private byte[] states;
+  private Deferred[] deferred;
+  private long order;
+
+  /**
+   * An animation that ended before the tick window, kept until it is known if it was the last one
+   * of its kind on its shape.
+   */
+  private static final class Deferred {
+    private byte kind;
+    private String name;
+    private int start;
+    private int end;
+    private long order;
+    private final float[] values = new float[6];
+  }
+
+  /**
+   * Creates a builder that passes the calls selected by the given options on to the given builder.
+   *
+   * @param builder the builder to pass the calls on to
+   * @param options the options that select the calls
+   */
+  private FilteringBuilder(TweenModelBuilder<T> builder, ReaderOptions options) {
+    this.builder = builder;
+    this.options = options;
+    this.names = new SymbolTable();
+    this.states = new byte[16];
+    this.deferred = new Deferred[16 * KINDS];
+    this.order = 0;
+  }
+
+  /**
+   * Wraps the given builder so that it only gets the calls selected by the given options. The
+   * builder is returned as it is if the options select everything, or if it already filters.
+   *
+   * @param builder the builder to wrap
+   * @param options the options that select the calls, may be null to select everything
+   * @param <T>     the type of model
+   * @return the builder to read into
+   */
+  static <T> TweenModelBuilder<T> of(TweenModelBuilder<T> builder, ReaderOptions options) {
+    if (options == null || options.selectsAll() || builder instanceof FilteringBuilder) {
+      return builder;
+    }
+    return new FilteringBuilder<>(builder, options);
+  }
+
+  /**
+   * Wraps the given builder like of, carrying on from the builder that filtered the commands read
+   * before, such as those read by the last call of an AnimationFileFollower. Which shapes that one
+   * selected is kept, so that the animations appended for a shape it dropped are dropped as well.
+   *
+   * @param builder  the builder to wrap
+   * @param options  the options that select the calls, may be null to select everything
+   * @param previous the builder returned for the commands read before, or null if there were none
+   * @param <T>      the type of model
+   * @return the builder to read into
+   */
+  static <T> TweenModelBuilder<T> of(TweenModelBuilder<T> builder, ReaderOptions options,
+                                     TweenModelBuilder<?> previous) {
+    TweenModelBuilder<T> selected = of(builder, options);
+    if (selected instanceof FilteringBuilder && previous instanceof FilteringBuilder
+            && selected != previous) {
+      FilteringBuilder<?> filter = (FilteringBuilder<?>) selected;
+      FilteringBuilder<?> before = (FilteringBuilder<?>) previous;
+      filter.names = before.names;
+      filter.states = before.states;
+      filter.order = before.order;
+    }
+    return selected;
+  }
+
+  @Override
+  public TweenModelBuilder<T> addOval(String name, float cx, float cy,
+                                      float xRadius, float yRadius,
+                                      float red, float green, float blue,
+                                      int startOfLife, int endOfLife) {
+    return this.addOval(name, cx, cy, xRadius, yRadius, red, green, blue,
+            startOfLife, endOfLife, 0);
+  }
+
+  @Override
+  public TweenModelBuilder<T> addOval(String name, float cx, float cy,
+                                      float xRadius, float yRadius,
+                                      float red, float green, float blue,
+                                      int startOfLife, int endOfLife, int layer) {
+    if (this.selectShape(name, layer, startOfLife, endOfLife)) {
+      this.builder.addOval(name, cx, cy, xRadius, yRadius, red, green, blue,
+              startOfLife, endOfLife, layer);
+    }
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<T> addRectangle(String name, float lx, float ly,
+                                           float width, float height,
+                                           float red, float green, float blue,
+                                           int startOfLife, int endOfLife) {
+    return this.addRectangle(name, lx, ly, width, height, red, green, blue,
+            startOfLife, endOfLife, 0);
+  }
+
+  @Override
+  public TweenModelBuilder<T> addRectangle(String name, float lx, float ly,
+                                           float width, float height,
+                                           float red, float green, float blue,
+                                           int startOfLife, int endOfLife, int layer) {
+    if (this.selectShape(name, layer, startOfLife, endOfLife)) {
+      this.builder.addRectangle(name, lx, ly, width, height, red, green, blue,
+              startOfLife, endOfLife, layer);
+    }
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<T> addMove(String name,
+                                      float moveFromX, float moveFromY,
+                                      float moveToX, float moveToY,
+                                      int startTime, int endTime) {
+    switch (this.selectAnimation(name, startTime, endTime)) {
+      case PASS:
+        this.builder.addMove(name, moveFromX, moveFromY, moveToX, moveToY, startTime, endTime);
+        break;
+      case DEFER:
+        Deferred d = this.defer(MOVE, name, startTime, endTime);
+        if (d != null) {
+          d.values[0] = moveFromX;
+          d.values[1] = moveFromY;
+          d.values[2] = moveToX;
+          d.values[3] = moveToY;
+        }
+        break;
+      default:
+        break;
+    }
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<T> addColorChange(String name,
+                                             float oldR, float oldG, float oldB,
+                                             float newR, float newG, float newB,
+                                             int startTime, int endTime) {
+    switch (this.selectAnimation(name, startTime, endTime)) {
+      case PASS:
+        this.builder.addColorChange(name, oldR, oldG, oldB, newR, newG, newB,
+                startTime, endTime);
+        break;
+      case DEFER:
+        Deferred d = this.defer(COLOR, name, startTime, endTime);
+        if (d != null) {
+          d.values[0] = oldR;
+          d.values[1] = oldG;
+          d.values[2] = oldB;
+          d.values[3] = newR;
+          d.values[4] = newG;
+          d.values[5] = newB;
+        }
+        break;
+      default:
+        break;
+    }
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<T> addScaleToChange(String name, float fromSx, float fromSy,
+                                               float toSx, float toSy,
+                                               int startTime, int endTime) {
+    switch (this.selectAnimation(name, startTime, endTime)) {
+      case PASS:
+        this.builder.addScaleToChange(name, fromSx, fromSy, toSx, toSy, startTime, endTime);
+        break;
+      case DEFER:
+        Deferred d = this.defer(SCALE, name, startTime, endTime);
+        if (d != null) {
+          d.values[0] = fromSx;
+          d.values[1] = fromSy;
+          d.values[2] = toSx;
+          d.values[3] = toSy;
+        }
+        break;
+      default:
+        break;
+    }
+    return this;
+  }
+
+  /**
+   * Passes on the last animation of each kind on each shape that ended before the tick window, in
+   * file order, and builds the model.
+   */
+  @Override
+  public T build() {
+    List<Deferred> last = new ArrayList<>();
+    for (Deferred d : this.deferred) {
+      if (d != null) {
+        last.add(d);
+      }
+    }
+    Arrays.fill(this.deferred, null);
+    last.sort(Comparator.comparingLong(d -> d.order));
+    for (Deferred d : last) {
+      float[] v = d.values;
+      switch (d.kind) {
+        case MOVE:
+          this.builder.addMove(d.name, v[0], v[1], v[2], v[3], d.start, d.end);
+          break;
+        case COLOR:
+          this.builder.addColorChange(d.name, v[0], v[1], v[2], v[3], v[4], v[5],
+                  d.start, d.end);
+          break;
+        default:
+          this.builder.addScaleToChange(d.name, v[0], v[1], v[2], v[3], d.start, d.end);
+          break;
+      }
+    }
+    return this.builder.build();
+  }
+
+  /**
+   * Decides if the given shape is selected, and remembers it for its animations.
+   *
+   * @return true if the shape should be passed on
+   */
+  private boolean selectShape(String name, int layer, int startOfLife, int endOfLife) {
+    int id = this.names.intern(name);
+    if (id >= this.states.length) {
+      this.states = Arrays.copyOf(this.states, Math.max(id + 1, 2 * this.states.length));
+    }
+    boolean selected = this.options.selectsShape(name, layer, startOfLife, endOfLife);
+    this.states[id] = selected ? SELECTED : DROPPED;
+    return selected;
+  }
+
+  /**
+   * Decides what to do with an animation of the given shape over the given ticks. Animations of
+   * shapes that were never added are passed on if their name is selected, so that the builder can
+   * report them the same way as without options.
+   *
+   * @return SKIP, PASS or DEFER if it ended before the tick window
+   */
+  private int selectAnimation(String name, int start, int end) {
+    int id = this.names.idOf(name);
+    byte state = id < 0 || id >= this.states.length ? UNKNOWN : this.states[id];
+    if (state == DROPPED) {
+      return SKIP;
+    }
+    if (state == UNKNOWN) {
+      return this.options.selectsName(name) ? PASS : SKIP;
+    }
+    if (start > this.options.getToTick()) {
+      return SKIP;
+    }
+    return end < this.options.getFromTick() ? DEFER : PASS;
+  }
+
+  /**
+   * Keeps the given animation that ended before the tick window, unless an animation of the same
+   * kind on the same shape ended later. Of two that ended at the same tick, the later one in the
+   * file is kept.
+   *
+   * @return the record to fill in the values of the animation, or null if it is not kept
+   */
+  private Deferred defer(byte kind, String name, int start, int end) {
+    int slot = this.names.idOf(name) * KINDS + kind;
+    if (slot >= this.deferred.length) {
+      this.deferred = Arrays.copyOf(this.deferred, Math.max(slot + 1, 2 * this.deferred.length));
+    }
+    Deferred d = this.deferred[slot];
+    if (d == null) {
+      d = new Deferred();
+      this.deferred[slot] = d;
+    } else if (d.end > end) {
+      return null;
+    }
+    d.kind = kind;
+    d.name = name;
+    d.start = start;
+    d.end = end;
+    d.order = this.order++;
+    return d;
+  }
+}
@@ -0,0 +1,115 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.shape.ImmutableAnimShape;
+
+/**
+ * An immutable snapshot of every shape of an animation at a single tick. Frames are made one after
+ * the other, and a frame shares with the frame before it every shape record, and every layer, that
+ * did not change in between. Keeping all of the frames of an animation therefore costs memory
+ * proportional to how much changes in it rather than to the number of shapes times the number of
+ * ticks.
+ */
+public final class Frame {
+  private final int tick;
+  private final List<IAnimShape> shapes;
+  private final List<List<IAnimShape>> layers;
+
+  /**
+   * Creates a frame. The given lists must not be changed afterwards.
+   *
+   * @param tick   the tick this frame is at
+   * @param shapes the shapes in the order they were added to the model
+   * @param layers the shapes divided by layers, lowest layer first
+   */
+  private Frame(int tick, List<IAnimShape> shapes, List<List<IAnimShape>> layers) {
+    this.tick = tick;
+    this.shapes = shapes;
+    this.layers = layers;
+  }
+
+  /**
+   * Makes the frame at the given tick out of the frame before it. Only the shapes that changed
+   * since the previous frame get new records, and only the layers that hold such a shape get new
+   * lists.
+   *
+   * @param previous the frame at the tick before, or null for the first frame
+   * @param tick     the tick of the new frame
+   * @param tracks   the tracks of all the shapes, in the order they were added to the model
+   * @param layerOf  for every shape, the index of its layer among the layers of the model
+   * @param layers   the number of layers of the model
+   * @return the new frame
+   */
+  static Frame next(Frame previous, int tick, List<ShapeTrack> tracks, int[] layerOf, int layers) {
+    IAnimShape[] records = new IAnimShape[tracks.size()];
+    boolean[] layerChanged = new boolean[layers];
+    boolean changed = previous == null;
+    for (int i = 0; i < records.length; i++) {
+      ShapeTrack track = tracks.get(i);
+      if (previous == null || track.changesAt(tick)) {
+        records[i] = ImmutableAnimShape.of(track.sample(tick));
+        layerChanged[layerOf[i]] = true;
+        changed = true;
+      } else {
+        records[i] = previous.shapes.get(i);
+      }
+    }
+    if (!changed) {
+      return new Frame(tick, previous.shapes, previous.layers);
+    }
+
+    List<List<IAnimShape>> layered = new ArrayList<>(layers);
+    List<List<IAnimShape>> building = new ArrayList<>(layers);
+    for (int l = 0; l < layers; l++) {
+      if (layerChanged[l]) {
+        List<IAnimShape> layer = new ArrayList<>();
+        layered.add(Collections.unmodifiableList(layer));
+        building.add(layer);
+      } else {
+        layered.add(previous.layers.get(l));
+        building.add(null);
+      }
+    }
+    for (int i = 0; i < records.length; i++) {
+      List<IAnimShape> layer = building.get(layerOf[i]);
+      if (layer != null) {
+        layer.add(records[i]);
+      }
+    }
+    List<IAnimShape> shapes = new ArrayList<>(records.length);
+    Collections.addAll(shapes, records);
+    return new Frame(tick, Collections.unmodifiableList(shapes),
+            Collections.unmodifiableList(layered));
+  }
+
+  /**
+   * Gets the tick this frame is at.
+   *
+   * @return the tick of this frame
+   */
+  public int getTick() {
+    return this.tick;
+  }
+
+  /**
+   * Gets the read only shapes of this frame in the order they were added to the model.
+   *
+   * @return unmodifiable list of the shapes
+   */
+  public List<IAnimShape> getShapes() {
+    return this.shapes;
+  }
+
+  /**
+   * Gets the read only shapes of this frame divided by layers, lowest layer first.
+   *
+   * @return unmodifiable list of the shapes at every layer
+   */
+  public List<List<IAnimShape>> getLayers() {
+    return this.layers;
+  }
+}
@@ -44,7 +44,8 @@ public interface IAnimationModel<O, A> extends IAnimationModelReadOnly<O, A> {
   void addAnimation(String name, A animation) throws IllegalArgumentException;
 
   /**
-   * Skips to the given time in the animation.
+   * Skips to the given time in the animation. The resulting state does not depend on the time
+   * skipped from, so the animation can be sought backwards as well as forwards.
    *
    * @param time the time to skip to.
    */
@@ -55,6 +56,15 @@ public interface IAnimationModel<O, A> extends IAnimationModelReadOnly<O, A> {
    */
   void rewind();
 
+  /**
+   * Takes an immutable snapshot of this model in its current state. Later changes to this model do
+   * not show in the snapshot, and the snapshot can be shared with and queried by any number of
+   * threads at once without locking.
+   *
+   * @return the read only snapshot of this model
+   */
+  IAnimationModelReadOnly<O, A> snapshot();
+
   /**
    * Gets the shapes with the initial states.
    */
@@ -19,6 +19,17 @@ public interface IAnimationModelReadOnly<O, A> {
    */
   List<A> getAnimations();
 
+  /**
+   * Gets the animations of the shape with the given name, in the order they were added to the
+   * model. The animations of every shape are kept apart as they are added, so this takes no time
+   * however many other animations there are, and the list is a read only view rather than a copy.
+   *
+   * @param name the name of the shape
+   * @return the animations of the shape
+   * @throws IllegalArgumentException if the model has no shape with the given name
+   */
+  List<A> getAnimationsOf(String name);
+
   /**
    * Get all the shapes which were added to the model which is a HashMap of AnimShapes.
    *
@@ -34,7 +45,8 @@ public interface IAnimationModelReadOnly<O, A> {
   List<O> getShapesList();
 
   /**
-   * Gets the list of shapes at all ticks, indexed by the tick at which they're shown.
+   * Gets the list of shapes at all ticks, indexed by the tick at which they're shown. The lists and
+   * shapes are those of the frames of getFrames, so they are read only.
    *
    * @return list of shapes at all ticks
    */
@@ -42,18 +54,60 @@ public interface IAnimationModelReadOnly<O, A> {
 
   /**
    * Gets the list of shapes at all ticks divided by layers. The outermost list is the layer, the
-   * next is the tick, and the innermost is the shape.
+   * next is the tick, and the innermost is the shape. The lists and shapes are those of the frames
+   * of getFrames, so they are read only.
    *
    * @return list of shapes at every tick at every layer.
    */
   List<List<List<O>>> getLayeredAllTicks();
 
+  /**
+   * Gets the frames of the animation from tick 0 up to and including the end time, indexed by
+   * tick. Consecutive frames share the records of the shapes that did not change between them.
+   *
+   * @return the frame at every tick
+   */
+  List<Frame> getFrames();
+
+  /**
+   * Gets the shapes at the given time divided by layers, lowest layer first. Unlike
+   * getLayeredAllTicks, only the requested time is computed, so memory stays proportional to the
+   * number of shapes rather than to the length of the animation. The time may lie between two
+   * ticks, in which case every running animation is interpolated to that moment.
+   *
+   * @param tick the time in ticks to compute the shapes at
+   * @return list of shapes at the given time at every layer.
+   */
+  List<List<O>> getLayeredShapesAt(double tick);
+
+  /**
+   * Computes the shapes at the given time straight from their animations, without rewinding or
+   * otherwise changing the state of the model. Any time costs the same to compute, and the method
+   * can be called from any thread as long as the model is not being changed at the same time. The
+   * time may lie between two ticks, in which case every running animation is interpolated to that
+   * moment.
+   *
+   * @param tick the time in ticks to compute the shapes at
+   * @return new shapes in their state at the given time, in the order they were added
+   */
+  List<O> sampleAt(double tick);
+
+  /**
+   * Puts each of the given shapes, which must be copies of shapes of this model, into the state its
+   * shape is in at the given time, the same way sampleAt computes it. Nothing is allocated, so a
+   * view can keep one copy of every shape and draw every frame from it.
+   *
+   * @param shapes copies of shapes of this model
+   * @param tick   the time in ticks to compute the shapes at
+   */
+  void sampleInto(List<O> shapes, double tick);
+
   /**
    * Returns a copy of the animationModel.
    *
    * @return copy of model
    */
-  IAnimationModel copy();
+  IAnimationModel<O, A> copy();
 
   /**
    * Returns the end time of the animation in ticks.
@@ -62,6 +116,34 @@ public interface IAnimationModelReadOnly<O, A> {
    */
   int endTime();
 
+  /**
+   * Returns the first tick at which a shape appears or an animation starts.
+   *
+   * @return the start time of the animation in ticks
+   */
+  int startTime();
+
+  /**
+   * Returns the first tick at which a shape appears.
+   *
+   * @return the first appearance of a shape in ticks
+   */
+  int firstAppearance();
+
+  /**
+   * Returns the last tick at which a shape disappears.
+   *
+   * @return the last disappearance of a shape in ticks
+   */
+  int lastDisappearance();
+
+  /**
+   * Returns the earliest tick at which the most animations are running at the same time.
+   *
+   * @return the busiest tick of the animation
+   */
+  int busiestTick();
+
   /**
    * Gets the shapes with the initial states.
    */
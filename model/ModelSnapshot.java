@@ -0,0 +1,138 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import cs3500.animator.model.animation.IAnimation;
+import cs3500.animator.model.animation.ReadOnlyAnimation;
+import cs3500.animator.model.shape.IAnimShape;
+
+/**
+ * An immutable snapshot of an animation model, taken by AnimationModel.snapshot. It holds its own
+ * copy of every shape and animation, its shapes are read only records and its animations are handed
+ * out as read only views, so neither the model it was taken from nor anyone holding one of its
+ * shapes or animations can change it. Every method
+ * only reads, and everything is reachable from a final field, so a snapshot can be handed to other
+ * threads as it is and queried by all of them at once without locking.
+ */
+public final class ModelSnapshot implements IAnimationModelReadOnly<IAnimShape, IAnimation> {
+  private final AnimationModel model;
+  private final int busiestTick;
+
+  /**
+   * Creates a snapshot of the given model, which must not be referenced by anything else. The
+   * busiest tick, which the model only finds when it is first asked for, is found here, so that
+   * asking for it later does not change the model.
+   *
+   * @param model the frozen copy of a model to take the snapshot of
+   */
+  ModelSnapshot(AnimationModel model) {
+    this.model = model;
+    this.busiestTick = model.busiestTick();
+  }
+
+  @Override
+  public List<IAnimation> getAnimations() {
+    return readOnly(this.model.getAnimations());
+  }
+
+  @Override
+  public List<IAnimation> getAnimationsOf(String name) {
+    return readOnly(this.model.getAnimationsOf(name));
+  }
+
+  /**
+   * Gets read only views of the given animations.
+   *
+   * @param animations the animations to view
+   * @return the views, in the same order
+   */
+  private static List<IAnimation> readOnly(List<IAnimation> animations) {
+    List<IAnimation> views = new ArrayList<>(animations.size());
+    for (IAnimation a : animations) {
+      views.add(ReadOnlyAnimation.of(a));
+    }
+    return views;
+  }
+
+  @Override
+  public HashMap<String, IAnimShape> getShapes() {
+    return this.model.getShapes();
+  }
+
+  @Override
+  public List<IAnimShape> getShapesList() {
+    return this.model.getShapesList();
+  }
+
+  @Override
+  public List<List<IAnimShape>> getShapesListAllTicks() {
+    return this.model.getShapesListAllTicks();
+  }
+
+  @Override
+  public List<List<List<IAnimShape>>> getLayeredAllTicks() {
+    return this.model.getLayeredAllTicks();
+  }
+
+  @Override
+  public List<Frame> getFrames() {
+    return this.model.getFrames();
+  }
+
+  @Override
+  public List<List<IAnimShape>> getLayeredShapesAt(double tick) {
+    return this.model.getLayeredShapesAt(tick);
+  }
+
+  @Override
+  public List<IAnimShape> sampleAt(double tick) {
+    return this.model.sampleAt(tick);
+  }
+
+  @Override
+  public void sampleInto(List<IAnimShape> shapes, double tick) {
+    this.model.sampleInto(shapes, tick);
+  }
+
+  /**
+   * Returns a mutable copy of the model this snapshot was taken of, in the state it had then.
+   *
+   * @return copy of model
+   */
+  @Override
+  public IAnimationModel<IAnimShape, IAnimation> copy() {
+    return this.model.deepCopy(false);
+  }
+
+  @Override
+  public int endTime() {
+    return this.model.endTime();
+  }
+
+  @Override
+  public int startTime() {
+    return this.model.startTime();
+  }
+
+  @Override
+  public int firstAppearance() {
+    return this.model.firstAppearance();
+  }
+
+  @Override
+  public int lastDisappearance() {
+    return this.model.lastDisappearance();
+  }
+
+  @Override
+  public int busiestTick() {
+    return this.busiestTick;
+  }
+
+  @Override
+  public List<IAnimShape> getOriginalShapesList() {
+    return this.model.getOriginalShapesList();
+  }
+}
@@ -0,0 +1,250 @@
+package cs3500.animator.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import cs3500.animator.model.util.TweenModelBuilder;
+
+/**
+ * Reads an animation file with several threads. Every command of the file format stands on its own
+ * line, so the file is cut into chunks at the starts of lines that begin with a command, and the
+ * chunks are memory mapped and read at the same time on a ForkJoinPool. Each chunk is recorded
+ * rather than built, and the recordings are replayed into the real builder in file order, so shapes
+ * are still added before their animations and errors are reported as if the file was read in one
+ * go. A chunk is replayed as soon as it and the chunks before it are recorded, while at most one
+ * chunk per thread after it is being read, so only those recordings are held at a time.
+ */
+final class ParallelAnimationReader {
+  private static final byte[][] COMMANDS = {
+      "background".getBytes(StandardCharsets.US_ASCII),
+      "rectangle".getBytes(StandardCharsets.US_ASCII),
+      "oval".getBytes(StandardCharsets.US_ASCII),
+      "move".getBytes(StandardCharsets.US_ASCII),
+      "change-color".getBytes(StandardCharsets.US_ASCII),
+      "scale".getBytes(StandardCharsets.US_ASCII)
+  };
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final long MIN_CHUNK_SIZE = 1L << 20;
+  private static final long MAX_CHUNK_SIZE = 1L << 30;
+  private static final int WINDOW_SIZE = 1 << 16;
+
+  /**
+   * How far past a line break the start of a command is looked for.
+   */
+  private static final int LOOKAHEAD = 64;
+
+  private final AnimationFileReader reader;
+  private final int parallelism;
+
+  /**
+   * Creates a parallel reader.
+   *
+   * @param reader      the reader to read each chunk with
+   * @param parallelism the number of threads to read with
+   */
+  ParallelAnimationReader(AnimationFileReader reader, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+    this.reader = reader;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Reads the whole file of the given channel and builds its model with the given builder.
+   *
+   * @param channel the channel of the file to read
+   * @param builder the builder used to build the model
+   * @param <T>     the type of model
+   * @return the model along with the settings of the scene
+   * @throws IOException            if the file cannot be read
+   * @throws InputMismatchException if some data value is not of the expected type
+   * @throws IllegalStateException  if an illegal token is read from the file
+   */
+  <T> AnimationScene<T> read(FileChannel channel, TweenModelBuilder<T> builder)
+          throws IOException {
+    long[] bounds = this.split(channel);
+    ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+    try {
+      Deque<Future<RecordingBuilder>> pending = new ArrayDeque<>();
+      float[] background = null;
+      for (int i = 0; i + 1 < bounds.length; i++) {
+        ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY,
+                bounds[i], bounds[i + 1] - bounds[i]);
+        pending.add(pool.submit(() -> this.record(bytes)));
+        if (pending.size() > this.parallelism) {
+          background = replay(join(pending.poll()), builder, background);
+        }
+      }
+      while (!pending.isEmpty()) {
+        background = replay(join(pending.poll()), builder, background);
+      }
+      return new AnimationScene<>(builder.build(), background);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads a single chunk into a recording. An error does not escape, it ends the recording.
+   *
+   * @param bytes the bytes of the chunk
+   * @return the recording of the chunk
+   */
+  private RecordingBuilder record(ByteBuffer bytes) {
+    RecordingBuilder recording = new RecordingBuilder();
+    try (AnimationTokenizer tokens = new AnimationTokenizer(bytes)) {
+      AnimationScene<RecordingBuilder> scene = this.reader.read(tokens, recording);
+      if (scene.hasBackground()) {
+        recording.setBackground(scene.getBackground());
+      }
+    } catch (RuntimeException e) {
+      recording.fail(e);
+    }
+    return recording;
+  }
+
+  /**
+   * Replays the recording of a chunk into the given builder.
+   *
+   * @param recording  the recording of the chunk
+   * @param builder    the builder used to build the model
+   * @param background the background set by the chunks before, or null if none set one
+   * @return the background set by this chunk or, if it sets none, by the chunks before
+   */
+  private static float[] replay(RecordingBuilder recording, TweenModelBuilder<?> builder,
+                                float[] background) {
+    recording.replay(builder);
+    return recording.getBackground() != null ? recording.getBackground() : background;
+  }
+
+  /**
+   * Waits for a chunk to be recorded.
+   *
+   * @param chunk the recording of the chunk to wait for
+   * @return the recording
+   */
+  private static RecordingBuilder join(Future<RecordingBuilder> chunk) {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while reading the animation file.");
+    } catch (ExecutionException e) {
+      // recordings catch their own errors, so this is an Error thrown while reading
+      throw new IllegalStateException("Could not read the animation file.", e.getCause());
+    }
+  }
+
+  /**
+   * Cuts the file into chunks: a few per thread, but none smaller than MIN_CHUNK_SIZE unless the
+   * file is, and none larger than MAX_CHUNK_SIZE unless a single command is.
+   *
+   * @param channel the channel of the file
+   * @return the offsets the chunks start at, followed by the size of the file
+   * @throws IOException if the file cannot be read
+   */
+  private long[] split(FileChannel channel) throws IOException {
+    long size = channel.size();
+    long count = Math.min((long) this.parallelism * CHUNKS_PER_THREAD, size / MIN_CHUNK_SIZE);
+    count = Math.max(count, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+    count = Math.max(count, 1);
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+    for (long i = 1; i < count; i++) {
+      long from = Math.max(size / count * i, bounds.get(bounds.size() - 1));
+      long bound = nextCommand(channel, from);
+      if (bound < 0) {
+        break;
+      }
+      if (bound > bounds.get(bounds.size() - 1)) {
+        bounds.add(bound);
+      }
+    }
+    bounds.add(size);
+    long[] toRet = new long[bounds.size()];
+    for (int i = 0; i < toRet.length; i++) {
+      toRet[i] = bounds.get(i);
+    }
+    return toRet;
+  }
+
+  /**
+   * Finds the first line after the given offset that starts with a command.
+   *
+   * @param channel the channel of the file
+   * @param from    the offset to start looking from
+   * @return the offset of the start of that line, or -1 if there is none
+   * @throws IOException if the file cannot be read
+   */
+  private static long nextCommand(FileChannel channel, long from) throws IOException {
+    ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+    long position = from;
+    long size = channel.size();
+    while (position < size) {
+      window.clear();
+      int read = channel.read(window, position);
+      if (read <= 0) {
+        return -1;
+      }
+      boolean last = position + read >= size;
+      long next = position + read;
+      for (int i = 0; i < read; i++) {
+        if (window.get(i) != '\n') {
+          continue;
+        }
+        if (i > 0 && !last && i + LOOKAHEAD > read) {
+          // read the window again from this line break so the command fits in it
+          next = position + i;
+          break;
+        }
+        if (startsCommand(window, i + 1, read)) {
+          return position + i + 1;
+        }
+      }
+      position = next;
+    }
+    return -1;
+  }
+
+  /**
+   * Checks if a line starting at the given index of the window starts with a command followed by
+   * whitespace.
+   *
+   * @param window the bytes of the file
+   * @param start  the index of the start of the line
+   * @param limit  the number of bytes in the window
+   * @return true if the line starts with a command
+   */
+  private static boolean startsCommand(ByteBuffer window, int start, int limit) {
+    int i = start;
+    while (i < limit && (window.get(i) == ' ' || window.get(i) == '\t' || window.get(i) == '\r')) {
+      i++;
+    }
+    for (byte[] command : COMMANDS) {
+      int end = i + command.length;
+      if (end >= limit) {
+        continue;
+      }
+      boolean matches = true;
+      for (int j = 0; j < command.length && matches; j++) {
+        matches = window.get(i + j) == command[j];
+      }
+      byte after = window.get(end);
+      if (matches && (after == ' ' || after == '\t' || after == '\r' || after == '\n')) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,140 @@
+package cs3500.animator.model;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the part of an animation file that an AnimationFileReader reads: only the shapes with
+ * certain names or on certain layers, and only what happens within a window of ticks. Everything
+ * is selected until it is narrowed down. A shape is read if its name is selected, its layer is
+ * selected and its lifetime overlaps the window. An animation is read if its shape is read and it
+ * overlaps the window, and so is the last animation of each kind that ended before the window on
+ * each shape, since that is what decides the attribute when the window starts.
+ */
+public final class ReaderOptions {
+  private Set<String> names;
+  private Pattern namePattern;
+  private Set<Integer> layers;
+  private int fromTick;
+  private int toTick;
+
+  /**
+   * Creates options that select everything.
+   */
+  public ReaderOptions() {
+    this.names = null;
+    this.namePattern = null;
+    this.layers = null;
+    this.fromTick = 0;
+    this.toTick = Integer.MAX_VALUE;
+  }
+
+  /**
+   * Selects only the shapes with one of the given names.
+   *
+   * @param names the names of the shapes to read
+   * @return these options
+   */
+  public ReaderOptions setShapes(Collection<String> names) {
+    this.names = new HashSet<>(names);
+    return this;
+  }
+
+  /**
+   * Selects only the shapes whose whole name matches the given regular expression. If the names are
+   * also selected with setShapes, a shape has to be selected by both.
+   *
+   * @param regex the regular expression the names of the shapes to read match
+   * @return these options
+   * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid
+   */
+  public ReaderOptions setShapePattern(String regex) {
+    this.namePattern = Pattern.compile(regex);
+    return this;
+  }
+
+  /**
+   * Selects only the shapes on one of the given layers.
+   *
+   * @param layers the layers of the shapes to read
+   * @return these options
+   */
+  public ReaderOptions setLayers(Collection<Integer> layers) {
+    this.layers = new HashSet<>(layers);
+    return this;
+  }
+
+  /**
+   * Selects only what happens between the given ticks, both included.
+   *
+   * @param fromTick the first tick of the window
+   * @param toTick   the last tick of the window
+   * @return these options
+   * @throws IllegalArgumentException if the window starts before tick 0 or ends before it starts
+   */
+  public ReaderOptions setTickWindow(int fromTick, int toTick) {
+    if (fromTick < 0 || toTick < fromTick) {
+      throw new IllegalArgumentException("Invalid tick window [" + fromTick + ", " + toTick
+              + "].");
+    }
+    this.fromTick = fromTick;
+    this.toTick = toTick;
+    return this;
+  }
+
+  /**
+   * Gets the first tick of the window.
+   *
+   * @return the first tick, 0 if the window is not narrowed down
+   */
+  public int getFromTick() {
+    return this.fromTick;
+  }
+
+  /**
+   * Gets the last tick of the window.
+   *
+   * @return the last tick, Integer.MAX_VALUE if the window is not narrowed down
+   */
+  public int getToTick() {
+    return this.toTick;
+  }
+
+  /**
+   * Checks if these options select everything, so that a file can be read without checking them.
+   *
+   * @return true if nothing has been narrowed down
+   */
+  boolean selectsAll() {
+    return this.names == null && this.namePattern == null && this.layers == null
+            && this.fromTick == 0 && this.toTick == Integer.MAX_VALUE;
+  }
+
+  /**
+   * Checks if the shape with the given name is selected by its name.
+   *
+   * @param name the name of the shape
+   * @return true if the name is selected
+   */
+  boolean selectsName(String name) {
+    return (this.names == null || this.names.contains(name))
+            && (this.namePattern == null || this.namePattern.matcher(name).matches());
+  }
+
+  /**
+   * Checks if the shape with the given name, layer and lifetime is selected.
+   *
+   * @param name        the name of the shape
+   * @param layer       the layer of the shape
+   * @param startOfLife the tick at which the shape appears
+   * @param endOfLife   the tick at which the shape disappears
+   * @return true if the shape is selected
+   */
+  boolean selectsShape(String name, int layer, int startOfLife, int endOfLife) {
+    return (this.layers == null || this.layers.contains(layer))
+            && startOfLife <= this.toTick && endOfLife >= this.fromTick
+            && this.selectsName(name);
+  }
+}
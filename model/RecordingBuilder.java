@@ -0,0 +1,259 @@
+package cs3500.animator.model;
+
+import java.util.Arrays;
+
+import cs3500.animator.model.util.TweenModelBuilder;
+
+/**
+ * A builder that only writes down the calls made to it, so that they can be replayed in the same
+ * order into another builder later. This lets parts of a file be read independently of each other
+ * while the model is still built in file order. A recording can also end in the error that stopped
+ * the reading, which is then thrown at the same point of the replay. The calls are written down in
+ * parallel primitive columns, one row per call, and their values one after the other in a single
+ * array, so a recording holds no object per call but the name of its shape. Runs of animations of
+ * the same kind are laid out just like the batches of addMoves and the like, and are replayed as
+ * such.
+ */
+final class RecordingBuilder implements TweenModelBuilder<RecordingBuilder> {
+  private static final byte RECTANGLE = 0;
+  private static final byte OVAL = 1;
+  private static final byte MOVE = 2;
+  private static final byte COLOR_CHANGE = 3;
+  private static final byte SCALE = 4;
+
+  private int count;
+  private byte[] kinds;
+  private String[] names;
+  private int[] starts;
+  private int[] ends;
+  private int[] layers;
+  private int valueCount;
+  private float[] values;
+  private float[] background;
+  private RuntimeException failure;
+
+  /**
+   * Creates an empty recording.
+   */
+  RecordingBuilder() {
+    this.kinds = new byte[64];
+    this.names = new String[64];
+    this.starts = new int[64];
+    this.ends = new int[64];
+    this.layers = new int[64];
+    this.values = new float[256];
+  }
+
+  /**
+   * Writes down a call, leaving room for the given number of values after the values of the calls
+   * before it.
+   *
+   * @param kind   the kind of call
+   * @param name   the name of the shape of the call
+   * @param start  the first tick of the shape or animation
+   * @param end    the last tick of the shape or animation
+   * @param layer  the layer of the shape, 0 for animations
+   * @param values the number of values of the call
+   * @return the index of the first value of the call
+   */
+  private int add(byte kind, String name, int start, int end, int layer, int values) {
+    if (this.count == this.kinds.length) {
+      int capacity = 2 * this.count;
+      this.kinds = Arrays.copyOf(this.kinds, capacity);
+      this.names = Arrays.copyOf(this.names, capacity);
+      this.starts = Arrays.copyOf(this.starts, capacity);
+      this.ends = Arrays.copyOf(this.ends, capacity);
+      this.layers = Arrays.copyOf(this.layers, capacity);
+    }
+    if (this.valueCount + values > this.values.length) {
+      this.values = Arrays.copyOf(this.values,
+              Math.max(2 * this.values.length, this.valueCount + values));
+    }
+    this.kinds[this.count] = kind;
+    this.names[this.count] = name;
+    this.starts[this.count] = start;
+    this.ends[this.count] = end;
+    this.layers[this.count] = layer;
+    this.count++;
+    int v = this.valueCount;
+    this.valueCount += values;
+    return v;
+  }
+
+  /**
+   * Records an oval on layer 0, the same as the reader does for ovals without a layer.
+   */
+  @Override
+  public TweenModelBuilder<RecordingBuilder> addOval(String name, float cx, float cy,
+                                                     float xRadius, float yRadius,
+                                                     float red, float green, float blue,
+                                                     int startOfLife, int endOfLife) {
+    return this.addOval(name, cx, cy, xRadius, yRadius, red, green, blue,
+            startOfLife, endOfLife, 0);
+  }
+
+  @Override
+  public TweenModelBuilder<RecordingBuilder> addOval(String name, float cx, float cy,
+                                                     float xRadius, float yRadius,
+                                                     float red, float green, float blue,
+                                                     int startOfLife, int endOfLife, int layer) {
+    int v = this.add(OVAL, name, startOfLife, endOfLife, layer, 7);
+    this.values[v] = cx;
+    this.values[v + 1] = cy;
+    this.values[v + 2] = xRadius;
+    this.values[v + 3] = yRadius;
+    this.values[v + 4] = red;
+    this.values[v + 5] = green;
+    this.values[v + 6] = blue;
+    return this;
+  }
+
+  /**
+   * Records a rectangle on layer 0, the same as the reader does for rectangles without a layer.
+   */
+  @Override
+  public TweenModelBuilder<RecordingBuilder> addRectangle(String name, float lx, float ly,
+                                                          float width, float height,
+                                                          float red, float green, float blue,
+                                                          int startOfLife, int endOfLife) {
+    return this.addRectangle(name, lx, ly, width, height, red, green, blue,
+            startOfLife, endOfLife, 0);
+  }
+
+  @Override
+  public TweenModelBuilder<RecordingBuilder> addRectangle(String name, float lx, float ly,
+                                                          float width, float height,
+                                                          float red, float green, float blue,
+                                                          int startOfLife, int endOfLife,
+                                                          int layer) {
+    int v = this.add(RECTANGLE, name, startOfLife, endOfLife, layer, 7);
+    this.values[v] = lx;
+    this.values[v + 1] = ly;
+    this.values[v + 2] = width;
+    this.values[v + 3] = height;
+    this.values[v + 4] = red;
+    this.values[v + 5] = green;
+    this.values[v + 6] = blue;
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<RecordingBuilder> addMove(String name,
+                                                     float moveFromX, float moveFromY,
+                                                     float moveToX, float moveToY,
+                                                     int startTime, int endTime) {
+    int v = this.add(MOVE, name, startTime, endTime, 0, 4);
+    this.values[v] = moveFromX;
+    this.values[v + 1] = moveFromY;
+    this.values[v + 2] = moveToX;
+    this.values[v + 3] = moveToY;
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<RecordingBuilder> addColorChange(String name,
+                                                            float oldR, float oldG, float oldB,
+                                                            float newR, float newG, float newB,
+                                                            int startTime, int endTime) {
+    int v = this.add(COLOR_CHANGE, name, startTime, endTime, 0, 6);
+    this.values[v] = oldR;
+    this.values[v + 1] = oldG;
+    this.values[v + 2] = oldB;
+    this.values[v + 3] = newR;
+    this.values[v + 4] = newG;
+    this.values[v + 5] = newB;
+    return this;
+  }
+
+  @Override
+  public TweenModelBuilder<RecordingBuilder> addScaleToChange(String name,
+                                                              float fromSx, float fromSy,
+                                                              float toSx, float toSy,
+                                                              int startTime, int endTime) {
+    int v = this.add(SCALE, name, startTime, endTime, 0, 4);
+    this.values[v] = fromSx;
+    this.values[v + 1] = fromSy;
+    this.values[v + 2] = toSx;
+    this.values[v + 3] = toSy;
+    return this;
+  }
+
+  @Override
+  public RecordingBuilder build() {
+    return this;
+  }
+
+  /**
+   * Records the background color that was read, replacing any earlier one.
+   *
+   * @param background the red, green and blue components of the background
+   */
+  void setBackground(float[] background) {
+    this.background = background;
+  }
+
+  /**
+   * Gets the last background color that was read.
+   *
+   * @return the components of the background, or null if none was read
+   */
+  float[] getBackground() {
+    return this.background;
+  }
+
+  /**
+   * Records the error that stopped the reading. Nothing can be recorded after it.
+   *
+   * @param failure the error to throw at the end of the replay
+   */
+  void fail(RuntimeException failure) {
+    this.failure = failure;
+  }
+
+  /**
+   * Makes all of the recorded calls on the given builder, in the order they were recorded, and then
+   * throws the recorded error if there is one. Every run of animations of the same kind is made as
+   * one batch call.
+   *
+   * @param builder the builder to replay the calls on
+   * @throws RuntimeException the recorded error, or any error the builder throws
+   */
+  void replay(TweenModelBuilder<?> builder) {
+    int v = 0;
+    int i = 0;
+    while (i < this.count) {
+      byte kind = this.kinds[i];
+      if (kind == RECTANGLE || kind == OVAL) {
+        float[] s = this.values;
+        if (kind == RECTANGLE) {
+          builder.addRectangle(this.names[i], s[v], s[v + 1], s[v + 2], s[v + 3], s[v + 4],
+                  s[v + 5], s[v + 6], this.starts[i], this.ends[i], this.layers[i]);
+        } else {
+          builder.addOval(this.names[i], s[v], s[v + 1], s[v + 2], s[v + 3], s[v + 4],
+                  s[v + 5], s[v + 6], this.starts[i], this.ends[i], this.layers[i]);
+        }
+        v += 7;
+        i++;
+        continue;
+      }
+      int run = 1;
+      while (i + run < this.count && this.kinds[i + run] == kind) {
+        run++;
+      }
+      if (kind == MOVE) {
+        builder.addMoves(this.names, this.starts, this.ends, i, this.values, v, run);
+        v += 4 * run;
+      } else if (kind == COLOR_CHANGE) {
+        builder.addColorChanges(this.names, this.starts, this.ends, i, this.values, v, run);
+        v += 6 * run;
+      } else {
+        builder.addScaleToChanges(this.names, this.starts, this.ends, i, this.values, v, run);
+        v += 4 * run;
+      }
+      i += run;
+    }
+    if (this.failure != null) {
+      throw this.failure;
+    }
+  }
+}
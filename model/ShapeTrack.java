@@ -0,0 +1,210 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import cs3500.animator.model.animation.IAnimation;
+import cs3500.animator.model.shape.IAnimShape;
+
+/**
+ * Index of all of the animations of a single shape. The animations are grouped by kind (one group
+ * per animation class, as in IAnimation.conflicts) and every group is kept sorted by start time.
+ * Animations of the same kind on the same shape never overlap, so the animation that decides an
+ * attribute at a given tick can be found with a binary search instead of a scan over every
+ * animation in the model. All of the animations of the shape are also kept in the order they were
+ * added.
+ */
+final class ShapeTrack {
+  private final IAnimShape shape;
+  private final IAnimShape original;
+  private final List<Class<?>> kinds;
+  private final List<List<IAnimation>> groups;
+  private final List<IAnimation> added;
+
+  /**
+   * Creates an empty track for the given shape.
+   *
+   * @param shape    the shape that the animations of this track change
+   * @param original the initial state of the shape
+   */
+  ShapeTrack(IAnimShape shape, IAnimShape original) {
+    this.shape = shape;
+    this.original = original;
+    this.kinds = new ArrayList<>(3);
+    this.groups = new ArrayList<>(3);
+    this.added = new ArrayList<>();
+  }
+
+  /**
+   * Checks if the given animation conflicts with an animation of this track, i.e. if an animation
+   * of the same kind is running at any tick the given one is running, ends included. The existing
+   * animations of a kind never overlap, so only the two neighbours of the insertion point of the
+   * given animation need to be checked.
+   *
+   * @param animation the animation to check
+   * @return true if it conflicts with an animation of this track
+   */
+  boolean conflicts(IAnimation animation) {
+    for (int k = 0; k < this.kinds.size(); k++) {
+      if (this.kinds.get(k) == animation.getClass()) {
+        List<IAnimation> group = this.groups.get(k);
+        int i = insertionPoint(group, animation.getStart());
+        return (i > 0 && group.get(i - 1).getEnd() >= animation.getStart())
+                || (i < group.size() && group.get(i).getStart() <= animation.getEnd());
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds the given animation to the group of its kind, keeping the group sorted by start time.
+   *
+   * @param animation the animation to add
+   */
+  void add(IAnimation animation) {
+    List<IAnimation> group = this.groupOf(animation);
+    group.add(insertionPoint(group, animation.getStart()), animation);
+    this.added.add(animation);
+  }
+
+  /**
+   * Gets all of the animations of this track in the order they were added.
+   *
+   * @return a read only view of the animations
+   */
+  List<IAnimation> animations() {
+    return Collections.unmodifiableList(this.added);
+  }
+
+  /**
+   * Puts the shape of this track into its state at the given tick. Only one animation per kind is
+   * used: the one running at that tick, or otherwise the last one that finished before it.
+   *
+   * @param time the tick to seek to
+   */
+  void seek(int time) {
+    this.shape.changeInto(this.original);
+    this.applyTo(this.shape, time);
+  }
+
+  /**
+   * Computes the state of the shape of this track at the given time without changing the shape
+   * itself. This only reads the track, so it can be called from any thread while the model is not
+   * being changed.
+   *
+   * @param time the time in ticks to compute the state at, which may lie between two ticks
+   * @return a new shape in the state at the given time
+   */
+  IAnimShape sample(double time) {
+    IAnimShape sample = this.original.copy();
+    this.applyTo(sample, time);
+    return sample;
+  }
+
+  /**
+   * Puts the given shape, a copy of the shape of this track, into the state the shape is in at the
+   * given time, the same way sample does, but without making a new shape.
+   *
+   * @param target the copy to change
+   * @param time   the time in ticks to compute the state at, which may lie between two ticks
+   */
+  void sampleInto(IAnimShape target, double time) {
+    target.changeInto(this.original);
+    this.applyTo(target, time);
+  }
+
+  /**
+   * Checks if the state of the shape of this track may differ between the tick before the given one
+   * and the given tick, i.e. if an animation runs across that step. Anything else leaves every
+   * attribute where it was.
+   *
+   * @param time the tick to check
+   * @return true if the shape may have changed since the tick before
+   */
+  boolean changesAt(int time) {
+    for (int k = 0; k < this.groups.size(); k++) {
+      List<IAnimation> group = this.groups.get(k);
+      int i = insertionPoint(group, time - 1) - 1;
+      if (i >= 0 && group.get(i).getEnd() >= time) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Applies to the given shape, which must be in the original state, the animation that decides
+   * each attribute at the given tick.
+   *
+   * @param target the shape to change
+   * @param time   the current time in ticks
+   */
+  private void applyTo(IAnimShape target, double time) {
+    for (int k = 0; k < this.groups.size(); k++) {
+      IAnimation a = deciding(this.groups.get(k), time);
+      if (a != null) {
+        a.applyTo(target, time);
+      }
+    }
+  }
+
+  /**
+   * Gets the group of animations of the same kind as the given one, creating it if needed.
+   *
+   * @param animation the animation whose kind to look up
+   * @return the group of animations of that kind
+   */
+  private List<IAnimation> groupOf(IAnimation animation) {
+    for (int k = 0; k < this.kinds.size(); k++) {
+      if (this.kinds.get(k) == animation.getClass()) {
+        return this.groups.get(k);
+      }
+    }
+    List<IAnimation> group = new ArrayList<>();
+    this.kinds.add(animation.getClass());
+    this.groups.add(group);
+    return group;
+  }
+
+  /**
+   * Finds the animation of a group that decides its attribute at the given tick. That is the last
+   * animation started before the tick. Animations that start and end at the same tick never
+   * change anything, as they only change a shape for ticks after their start and up to their end.
+   *
+   * @param group the group sorted by start time
+   * @param time  the current time in ticks
+   * @return the deciding animation, or null if none has started yet
+   */
+  private static IAnimation deciding(List<IAnimation> group, double time) {
+    int i = insertionPoint(group, time) - 1;
+    // one starting at the tick has not changed anything yet, so an earlier one still decides
+    while (i >= 0 && (group.get(i).getStart() == time
+            || group.get(i).getStart() == group.get(i).getEnd())) {
+      i--;
+    }
+    return i >= 0 ? group.get(i) : null;
+  }
+
+  /**
+   * Gets the index of the first animation of the group that starts after the given time, which is
+   * where an animation starting at that time is inserted.
+   *
+   * @param group the group sorted by start time
+   * @param start the start time to look for
+   * @return the index of the first animation starting later than the given time
+   */
+  private static int insertionPoint(List<IAnimation> group, double start) {
+    int lo = 0;
+    int hi = group.size();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (group.get(mid).getStart() <= start) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+}
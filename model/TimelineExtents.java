@@ -0,0 +1,208 @@
+package cs3500.animator.model;
+
+import java.util.Arrays;
+
+import cs3500.animator.model.animation.IAnimation;
+import cs3500.animator.model.shape.IAnimShape;
+
+/**
+ * The extents of the timeline of an animation, kept up to date as shapes and animations are added
+ * so that they never have to be recomputed by scanning the model. All of the extents are 0 while
+ * there is nothing to take them from. The busiest tick is found by one sweep over the start and
+ * end ticks of the animations in order, and kept until the next animation is added. The ticks are
+ * kept sorted as well: only the ticks of the animations added since the last sweep are sorted, and
+ * merged into the rest, so that a sweep after a few more animations takes linear time. The memory
+ * this takes grows with the number of animations, not with the length of the timeline.
+ */
+final class TimelineExtents {
+  private int shapeCount;
+  private int firstAppearance;
+  private int lastDisappearance;
+  private int firstStart;
+  private int lastEnd;
+
+  private int animationCount;
+  private int[] starts;
+  private int[] ends;
+
+  // the ticks of the first sortedCount animations, each array in ascending order
+  private int sortedCount;
+  private int[] sortedStarts;
+  private int[] sortedEnds;
+  // the busiest tick, or -1 if an animation was added since it was found
+  private int busiestTick;
+
+  /**
+   * Creates the extents of an empty timeline.
+   */
+  TimelineExtents() {
+    this.starts = new int[16];
+    this.ends = new int[16];
+    this.sortedStarts = new int[0];
+    this.sortedEnds = new int[0];
+    this.busiestTick = 0;
+  }
+
+  /**
+   * Updates the extents with a new shape.
+   *
+   * @param shape the added shape
+   */
+  void addShape(IAnimShape shape) {
+    if (this.shapeCount == 0) {
+      this.firstAppearance = shape.getAppears();
+      this.lastDisappearance = shape.getDisappears();
+    } else {
+      this.firstAppearance = Math.min(this.firstAppearance, shape.getAppears());
+      this.lastDisappearance = Math.max(this.lastDisappearance, shape.getDisappears());
+    }
+    this.shapeCount++;
+  }
+
+  /**
+   * Makes room for the given number of animations more, so that a batch of animations can be added
+   * without growing the arrays more than once.
+   *
+   * @param more the number of animations that are about to be added
+   */
+  void ensureCapacity(int more) {
+    int needed = this.animationCount + more;
+    if (needed > this.starts.length) {
+      this.starts = Arrays.copyOf(this.starts, Math.max(needed, 2 * this.starts.length));
+      this.ends = Arrays.copyOf(this.ends, Math.max(needed, 2 * this.ends.length));
+    }
+  }
+
+  /**
+   * Updates the extents with a new animation.
+   *
+   * @param animation the added animation
+   */
+  void addAnimation(IAnimation animation) {
+    if (this.animationCount == this.starts.length) {
+      this.starts = Arrays.copyOf(this.starts, 2 * this.animationCount);
+      this.ends = Arrays.copyOf(this.ends, 2 * this.animationCount);
+    }
+    if (this.animationCount == 0) {
+      this.firstStart = animation.getStart();
+      this.lastEnd = animation.getEnd();
+    } else {
+      this.firstStart = Math.min(this.firstStart, animation.getStart());
+      this.lastEnd = Math.max(this.lastEnd, animation.getEnd());
+    }
+    this.starts[this.animationCount] = animation.getStart();
+    this.ends[this.animationCount] = animation.getEnd();
+    this.animationCount++;
+    this.busiestTick = -1;
+  }
+
+  /**
+   * Gets the first tick at which a shape appears or an animation starts.
+   *
+   * @return the start time in ticks
+   */
+  int startTime() {
+    if (this.shapeCount == 0 || this.animationCount == 0) {
+      return this.shapeCount == 0 ? this.firstStart : this.firstAppearance;
+    }
+    return Math.min(this.firstAppearance, this.firstStart);
+  }
+
+  /**
+   * Gets the last tick at which a shape disappears or an animation ends.
+   *
+   * @return the end time in ticks
+   */
+  int endTime() {
+    return Math.max(this.lastDisappearance, this.lastEnd);
+  }
+
+  /**
+   * Gets the first tick at which a shape appears.
+   *
+   * @return the first appearance in ticks
+   */
+  int firstAppearance() {
+    return this.firstAppearance;
+  }
+
+  /**
+   * Gets the last tick at which a shape disappears.
+   *
+   * @return the last disappearance in ticks
+   */
+  int lastDisappearance() {
+    return this.lastDisappearance;
+  }
+
+  /**
+   * Gets the earliest tick at which the most animations are running at once. An animation is
+   * running up to and including its end tick.
+   *
+   * @return the busiest tick, or 0 if there are no animations
+   */
+  int busiestTick() {
+    if (this.busiestTick < 0) {
+      this.sortNewTicks();
+      this.busiestTick = this.sweep();
+    }
+    return this.busiestTick;
+  }
+
+  /**
+   * Sorts the start and end ticks of the animations added since the last sweep and merges them
+   * into the ticks that are already sorted.
+   */
+  private void sortNewTicks() {
+    int[] newStarts = Arrays.copyOfRange(this.starts, this.sortedCount, this.animationCount);
+    int[] newEnds = Arrays.copyOfRange(this.ends, this.sortedCount, this.animationCount);
+    Arrays.sort(newStarts);
+    Arrays.sort(newEnds);
+    this.sortedStarts = merge(this.sortedStarts, newStarts);
+    this.sortedEnds = merge(this.sortedEnds, newEnds);
+    this.sortedCount = this.animationCount;
+  }
+
+  /**
+   * Merges two arrays in ascending order into one.
+   *
+   * @param a the first array, in ascending order
+   * @param b the second array, in ascending order
+   * @return a new array with the elements of both, in ascending order
+   */
+  private static int[] merge(int[] a, int[] b) {
+    int[] merged = new int[a.length + b.length];
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k < merged.length; k++) {
+      merged[k] = j == b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+    }
+    return merged;
+  }
+
+  /**
+   * Goes through the sorted start and end ticks in order, counting the animations running, and
+   * finds the first tick at which the count is the highest. An animation that starts at the tick
+   * another one ends at runs at the same time as it, so starts are counted before ends.
+   *
+   * @return the busiest tick, or 0 if there are no animations
+   */
+  private int sweep() {
+    int running = 0;
+    int most = 0;
+    int tick = 0;
+    int j = 0;
+    for (int i = 0; i < this.sortedCount; i++) {
+      while (this.sortedEnds[j] < this.sortedStarts[i]) {
+        running--;
+        j++;
+      }
+      running++;
+      if (running > most) {
+        most = running;
+        tick = this.sortedStarts[i];
+      }
+    }
+    return tick;
+  }
+}
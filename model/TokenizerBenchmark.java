@@ -0,0 +1,119 @@
+package cs3500.animator.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Scanner;
+
+/**
+ * Measures how fast AnimationTokenizer reads numbers, next to Scanner, which the file reader used
+ * before. Both read every token of the same text as a float, a few rounds each so that the code is
+ * compiled before it is timed, and the throughput of the last round is reported in megabytes and
+ * millions of tokens per second.
+ *
+ * <p>Run it with the file to read, which must contain only numbers, and optionally the number of
+ * rounds. Without a file, a text of a million numbers like those in animation files is made up.
+ */
+public final class TokenizerBenchmark {
+  private static final int DEFAULT_ROUNDS = 5;
+  private static final int GENERATED_TOKENS = 1_000_000;
+
+  private TokenizerBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the file to read and the number of rounds, both optional
+   * @throws IOException if the file cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    byte[] text = args.length > 0 ? Files.readAllBytes(Paths.get(args[0])) : generate();
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+    if (rounds < 1) {
+      throw new IllegalArgumentException("There must be at least one round.");
+    }
+    int tokens = 0;
+    long nanos = 0;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      tokens = readWithTokenizer(text);
+      nanos = System.nanoTime() - start;
+    }
+    report("AnimationTokenizer", text.length, tokens, nanos);
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      tokens = readWithScanner(text);
+      nanos = System.nanoTime() - start;
+    }
+    report("Scanner", text.length, tokens, nanos);
+  }
+
+  /**
+   * Makes up a text of numbers like the coordinates, sizes and color components of animation
+   * files.
+   */
+  private static byte[] generate() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < GENERATED_TOKENS; i++) {
+      switch (i % 4) {
+        case 0:
+          text.append(i % 1000);
+          break;
+        case 1:
+          text.append(i % 500).append('.').append(i % 10);
+          break;
+        case 2:
+          text.append('-').append(i % 200).append(".25");
+          break;
+        default:
+          text.append("0.").append(i % 1000);
+          break;
+      }
+      text.append(i % 16 == 15 ? '\n' : ' ');
+    }
+    return text.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int readWithTokenizer(byte[] text) {
+    AnimationTokenizer tokenizer = new AnimationTokenizer(ByteBuffer.wrap(text));
+    int tokens = 0;
+    float sum = 0;
+    while (tokenizer.hasNext()) {
+      sum += tokenizer.nextFloat();
+      tokens++;
+    }
+    keep(sum);
+    return tokens;
+  }
+
+  private static int readWithScanner(byte[] text) {
+    Scanner scanner = new Scanner(new String(text, StandardCharsets.UTF_8));
+    int tokens = 0;
+    float sum = 0;
+    while (scanner.hasNext()) {
+      sum += scanner.nextFloat();
+      tokens++;
+    }
+    keep(sum);
+    return tokens;
+  }
+
+  /**
+   * Uses the sum of the numbers read, so that reading them cannot be left out.
+   */
+  private static void keep(float sum) {
+    if (sum == Float.MIN_VALUE) {
+      System.out.println(sum);
+    }
+  }
+
+  private static void report(String reader, int bytes, int tokens, long nanos) {
+    double seconds = nanos / 1e9;
+    System.out.println(String.format(Locale.ROOT, "%-18s %8.1f MB/s %8.2f M tokens/s",
+            reader, bytes / seconds / 1e6, tokens / seconds / 1e6));
+  }
+}
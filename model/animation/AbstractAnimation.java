@@ -4,7 +4,7 @@ import java.util.List;
 
 //import cs3500.animator.model.shape.AnimShape;
 import cs3500.animator.model.shape.IAnimShape;
-import cs3500.animator.model.util.Util;
+import cs3500.animator.model.util.SvgFormat;
 
 /**
  * Represents a single animation (motion, color change, etc).
@@ -116,17 +116,23 @@ public abstract class AbstractAnimation implements IAnimation {
   @Override
   public abstract void apply(int time);
 
+  @Override
+  public abstract void applyTo(IAnimShape target, double time);
+
+  @Override
+  public abstract IAnimation copyFor(IAnimShape shape);
+
 
   /**
    * Returns the current value of the given measurement based on time, start value, and end value.
    *
-   * @param t the current time
+   * @param t the current time, which may lie between two ticks
    * @param a the starting value of the measurement
    * @param b the ending value of the measurement
    * @return the current value of the measurement
    */
-  protected double curVal(int t, double a, double b) {
-    return a + (b - a) * ((double) (t - start)) / (end - start);
+  protected double curVal(double t, double a, double b) {
+    return a + (b - a) * (t - start) / (end - start);
   }
 
   /**
@@ -150,7 +156,7 @@ public abstract class AbstractAnimation implements IAnimation {
    * @return true if they conflict, false if they do not
    */
   private boolean conflicts(IAnimation a) {
-    if (this.shape.getName().equals(a.getShape().getName()) && a.getClass().isInstance(this)) {
+    if (this.onSameShape(a) && a.getClass().isInstance(this)) {
       if ((this.start >= a.getStart() && this.start <= a.getEnd()) ||
               (a.getStart() >= this.start && a.getStart() <= this.end)) {
         return true;
@@ -159,6 +165,21 @@ public abstract class AbstractAnimation implements IAnimation {
     return false;
   }
 
+  /**
+   * Checks if the given animation is on the same shape as this one. The shape ids are compared if
+   * both shapes are in a model, and the names otherwise.
+   *
+   * @param a the animation to check
+   * @return true if both are on the same shape
+   */
+  private boolean onSameShape(IAnimation a) {
+    int id = this.getShapeId();
+    if (id >= 0 && a.getShapeId() >= 0) {
+      return id == a.getShapeId();
+    }
+    return this.shape.getName().equals(a.getShape().getName());
+  }
+
   /**
    * Checks if this animation conflicts with any animation in the given list of animations.
    *
@@ -185,6 +206,11 @@ public abstract class AbstractAnimation implements IAnimation {
     return shape.copy();
   }
 
+  @Override
+  public int getShapeId() {
+    return this.shape == null ? -1 : this.shape.getId();
+  }
+
   /**
    * get the attribute name of the shape that we want to modify.
    *
@@ -238,7 +264,13 @@ public abstract class AbstractAnimation implements IAnimation {
    */
   @Override
   public String svgAnimationText(int rate, boolean isAbleToLoopBack) {
-    String svgText = "";
+    return this.svgAnimationText(new StringBuilder(), rate, isAbleToLoopBack, SvgFormat.DEFAULT)
+            .toString();
+  }
+
+  @Override
+  public StringBuilder svgAnimationText(StringBuilder acc, int rate, boolean isAbleToLoopBack,
+                                        SvgFormat format) {
     String loopBase;
     if (isAbleToLoopBack) {
       loopBase = "base.begin+";
@@ -246,14 +278,14 @@ public abstract class AbstractAnimation implements IAnimation {
       loopBase = "";
     }
     for (int i = 0; i < this.totalAttributesNumber(); i++) {
-      svgText += "<animate attributeType=\"xml\"";
-      svgText += " begin=" + "\"" + loopBase + ((double) this.start / rate) * 1000 + "ms" + "\"";
-      svgText += " dur=" + "\"" + ((double) (this.end - this.start) / rate) * 1000 + "ms" + "\" ";
-      svgText += "attributeName=" + this.getAttributeName(i);
-      svgText += " from=" + this.fromValue(i);
-      svgText += " to=" + this.toValue(i) + " ";
-      svgText += "fill=\"freeze\" />" + Util.newLine();
+      format.openAnimate(acc);
+      format.appendMillis(acc.append(" begin=\"").append(loopBase), this.start, rate).append('"');
+      format.appendMillis(acc.append(" dur=\""), this.end - this.start, rate).append('"');
+      acc.append(" attributeName=").append(this.getAttributeName(i));
+      this.appendFromValue(acc.append(" from=\""), i, format).append('"');
+      this.appendToValue(acc.append(" to=\""), i, format).append('"');
+      format.closeEmpty(acc.append(" fill=\"freeze\""));
     }
-    return svgText;
+    return acc;
   }
 }
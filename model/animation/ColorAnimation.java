@@ -1,16 +1,25 @@
 package cs3500.animator.model.animation;
 
 import java.awt.Color;
+import java.util.Arrays;
 
 import cs3500.animator.model.shape.AnimShape;
+import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.util.SvgFormat;
+import cs3500.animator.model.util.TweenModelBuilder;
 import cs3500.animator.model.util.Util;
 
 /**
- * AbstractAnimation involving changing colors.
+ * AbstractAnimation involving changing colors. The red, green and blue components of the start
+ * color and then of the end color are kept as six floats in a row of a column, which may be shared
+ * with other animations.
  */
 public class ColorAnimation extends AbstractAnimation {
   private Color endColor;
   private Color startColor;
+  private final float[] components;
+  private final int offset;
+  private boolean hasStart;
 
   /**
    * the constructor takes in only end color.
@@ -20,8 +29,10 @@ public class ColorAnimation extends AbstractAnimation {
    * @param endColor the end color of the shape wants to be.
    */
   public ColorAnimation(int start, int end, Color endColor) {
-    super(start, end);
+    this(start, end, new float[6], 0);
     this.endColor = endColor;
+    System.arraycopy(endColor.getColorComponents(null), 0, this.components, 3, 3);
+    this.hasStart = false;
   }
 
   /**
@@ -35,6 +46,40 @@ public class ColorAnimation extends AbstractAnimation {
   public ColorAnimation(int start, int end, Color startColor, Color endColor) {
     this(start, end, endColor);
     this.startColor = startColor;
+    startColor.getColorComponents(this.components);
+    this.hasStart = true;
+  }
+
+  /**
+   * the constructor which take in the red, green and blue components of both colors. The colors
+   * themselves are only made when they are needed.
+   *
+   * @param start           the start time of the animation.
+   * @param end             the end time of the animation.
+   * @param startComponents the components of the start color of the shape, each between 0 and 1.
+   * @param endComponents   the components of the end color of the shape, each between 0 and 1.
+   */
+  public ColorAnimation(int start, int end, float[] startComponents, float[] endComponents) {
+    this(start, end, new float[6], 0);
+    System.arraycopy(startComponents, 0, this.components, 0, 3);
+    System.arraycopy(endComponents, 0, this.components, 3, 3);
+  }
+
+  /**
+   * the constructor which reads the components of both colors from a column, the three of the
+   * start color followed by the three of the end color. The column is not copied, so that many
+   * animations can share one, and must not be changed afterwards.
+   *
+   * @param start      the start time of the animation.
+   * @param end        the end time of the animation.
+   * @param components the column holding the components, each between 0 and 1.
+   * @param offset     the index of the red component of the start color in the column.
+   */
+  public ColorAnimation(int start, int end, float[] components, int offset) {
+    super(start, end);
+    this.components = components;
+    this.offset = offset;
+    this.hasStart = true;
   }
 
   /**
@@ -44,35 +89,121 @@ public class ColorAnimation extends AbstractAnimation {
    */
   public void setShape(AnimShape shape) {
     super.setShape(shape);
-    if (startColor == null) {
+    if (!hasStart) {
       startColor = this.shape.getColor();
+      System.arraycopy(startColor.getColorComponents(null), 0, components, offset, 3);
+      hasStart = true;
     }
   }
 
   @Override
   public String changeText() {
     return "changes color from " + Util.colString(this.shape.getColor()) +
-            " to " + Util.colString(this.endColor);
+            " to " + Util.colString(this.endColor());
   }
 
   @Override
   public void apply() {
-    this.shape.changeColor(this.endColor);
+    this.shape.changeColor(this.endColor());
   }
 
   @Override
   public void apply(int time) {
     if (time > start) {
       time = Math.min(time, end);
-      float[] startCom = this.startColor.getColorComponents(null);
-      float[] endCom = this.endColor.getColorComponents(null);
-      float r = (float) this.curVal(time, startCom[0], endCom[0]);
-      float g = (float) this.curVal(time, startCom[1], endCom[1]);
-      float b = (float) this.curVal(time, startCom[2], endCom[2]);
-      this.shape.changeColor(new Color(r, g, b));
+      this.interpolate(this.shape, time);
     }
   }
 
+  @Override
+  public void applyTo(IAnimShape target, double time) {
+    if (time >= end) {
+      target.changeColor(this.endColor());
+    } else if (time <= start) {
+      target.changeColor(this.startColor());
+    } else {
+      this.interpolate(target, time);
+    }
+  }
+
+  /**
+   * Sets the color of the given shape to the one in between the start and end colors at the given
+   * time, using the components of both colors that were worked out beforehand.
+   *
+   * @param target the shape to change
+   * @param time   the time in ticks to compute the color at
+   */
+  private void interpolate(IAnimShape target, double time) {
+    target.changeColor(
+            (float) this.curVal(time, this.from(0), this.to(0)),
+            (float) this.curVal(time, this.from(1), this.to(1)),
+            (float) this.curVal(time, this.from(2), this.to(2)));
+  }
+
+  /**
+   * Gets a component of the start color.
+   *
+   * @param index 0 for red, 1 for green and 2 for blue
+   * @return the component
+   */
+  private float from(int index) {
+    return this.components[this.offset + index];
+  }
+
+  /**
+   * Gets a component of the end color.
+   *
+   * @param index 0 for red, 1 for green and 2 for blue
+   * @return the component
+   */
+  private float to(int index) {
+    return this.components[this.offset + 3 + index];
+  }
+
+  /**
+   * Gets the start color, making it from its components the first time.
+   *
+   * @return the start color
+   */
+  private Color startColor() {
+    if (this.startColor == null) {
+      this.startColor = new Color(this.from(0), this.from(1), this.from(2));
+    }
+    return this.startColor;
+  }
+
+  /**
+   * Gets the end color, making it from its components the first time.
+   *
+   * @return the end color
+   */
+  private Color endColor() {
+    if (this.endColor == null) {
+      this.endColor = new Color(this.to(0), this.to(1), this.to(2));
+    }
+    return this.endColor;
+  }
+
+  @Override
+  public IAnimation copyFor(IAnimShape shape) {
+    ColorAnimation copy = new ColorAnimation(this.start, this.end,
+            Arrays.copyOfRange(this.components, this.offset, this.offset + 6), 0);
+    copy.hasStart = this.hasStart;
+    // the colors are made now, so that reading the copy never writes to it; a snapshot shares its
+    // copies between threads
+    copy.startColor = this.startColor();
+    copy.endColor = this.endColor();
+    copy.shape = shape;
+    return copy;
+  }
+
+  @Override
+  public void addTo(TweenModelBuilder<?> builder) {
+    builder.addColorChange(this.shape.getName(),
+            this.from(0), this.from(1), this.from(2),
+            this.to(0), this.to(1), this.to(2), this.start, this.end);
+  }
+
   @Override
   public String getAttributeName(int index) {
     return "\"fill\"";
@@ -80,12 +211,22 @@ public class ColorAnimation extends AbstractAnimation {
 
   @Override
   public String fromValue(int index) {
-    return "\"rgb" + Util.colRGBString(this.startColor) + "\"";
+    return "\"rgb" + Util.colRGBString(this.startColor()) + "\"";
   }
 
   @Override
   public String toValue(int index) {
-    return "\"rgb" + Util.colRGBString(this.endColor) + "\"";
+    return "\"rgb" + Util.colRGBString(this.endColor()) + "\"";
+  }
+
+  @Override
+  public StringBuilder appendFromValue(StringBuilder acc, int index, SvgFormat format) {
+    return format.appendColor(acc, this.from(0), this.from(1), this.from(2));
+  }
+
+  @Override
+  public StringBuilder appendToValue(StringBuilder acc, int index, SvgFormat format) {
+    return format.appendColor(acc, this.to(0), this.to(1), this.to(2));
   }
 
   @Override
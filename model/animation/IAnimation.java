@@ -3,6 +3,8 @@ package cs3500.animator.model.animation;
 import java.util.List;
 
 import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.util.SvgFormat;
+import cs3500.animator.model.util.TweenModelBuilder;
 
 public interface IAnimation extends Comparable<IAnimation> {
   /**
@@ -34,6 +36,14 @@ public interface IAnimation extends Comparable<IAnimation> {
    */
   IAnimShape getShape();
 
+  /**
+   * Gets the id of the shape of this animation, without copying the shape. Animations of the same
+   * model are on the same shape if and only if their shape ids are equal.
+   *
+   * @return the id of the shape, or -1 if it has no shape or the shape is not in a model
+   */
+  int getShapeId();
+
   /**
    * Returns the String form of the animation given a unit of time and the rate of ticks per unit.
    *
@@ -63,6 +73,34 @@ public interface IAnimation extends Comparable<IAnimation> {
    */
   void apply(int time);
 
+  /**
+   * Sets the attributes changed by this animation on the given shape to their values at the given
+   * time, without changing the shape this animation belongs to. Before the animation starts its
+   * starting values are used, and after it ends its final values are used. The time does not have
+   * to be a whole tick, so that the values can be computed for any moment in between two ticks.
+   *
+   * @param target the shape to change
+   * @param time   the time in ticks to compute the values at
+   */
+  void applyTo(IAnimShape target, double time);
+
+  /**
+   * Makes a copy of this animation, with the same times and values, that belongs to the given shape
+   * instead. Unlike setShape, nothing is taken from the given shape.
+   *
+   * @param shape the shape the copy belongs to
+   * @return the copy of this animation
+   */
+  IAnimation copyFor(IAnimShape shape);
+
+  /**
+   * Adds this animation to the given builder, for the shape it belongs to, with the same values the
+   * file reader would give the builder for it.
+   *
+   * @param builder the builder to add this animation to
+   */
+  void addTo(TweenModelBuilder<?> builder);
+
   /**
    * An AbstractAnimation is less than another if it begins at an earlier time. This will be used
    * when running the animations.
@@ -107,6 +145,28 @@ public interface IAnimation extends Comparable<IAnimation> {
    */
   String toValue(int index);
 
+  /**
+   * Appends the original value of the attribute that need to be modified, in the given svg format
+   * and without quotes.
+   *
+   * @param acc    the accumulated StringBuilder
+   * @param index  the index number of the attribute, as for fromValue
+   * @param format the format to write the value in
+   * @return the StringBuilder with the value appended
+   */
+  StringBuilder appendFromValue(StringBuilder acc, int index, SvgFormat format);
+
+  /**
+   * Appends the value of the attribute that need to be modified to, in the given svg format and
+   * without quotes.
+   *
+   * @param acc    the accumulated StringBuilder
+   * @param index  the index number of the attribute, as for toValue
+   * @param format the format to write the value in
+   * @return the StringBuilder with the value appended
+   */
+  StringBuilder appendToValue(StringBuilder acc, int index, SvgFormat format);
+
   /**
    * get the total number of the attributes will be changed for the specific shape going to be
    * changed.
@@ -127,4 +187,17 @@ public interface IAnimation extends Comparable<IAnimation> {
    * @return the svg text form for the animation.
    */
   String svgAnimationText(int rate, boolean isAbleToLoopBack);
+
+  /**
+   * Appends the svg text for this animation on every attribute of a shape, like svgAnimationText,
+   * in the given svg format.
+   *
+   * @param acc              the accumulated StringBuilder
+   * @param rate             the number of ticks in one second
+   * @param isAbleToLoopBack the boolean to decide loop back or not.
+   * @param format           the format to write the text in
+   * @return the StringBuilder with the svg text for the animation appended
+   */
+  StringBuilder svgAnimationText(StringBuilder acc, int rate, boolean isAbleToLoopBack,
+                                 SvgFormat format);
 }
@@ -3,7 +3,8 @@ package cs3500.animator.model.animation;
 //import cs3500.animator.model.shape.AnimShape;
 import cs3500.animator.model.shape.IAnimShape;
 import cs3500.animator.model.shape.IPos;
-import cs3500.animator.model.shape.Pos;
+import cs3500.animator.model.util.SvgFormat;
+import cs3500.animator.model.util.TweenModelBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,8 +13,10 @@ import java.util.List;
  * AbstractAnimation of moving an AnimShape from one Pos to another.
  */
 public class MoveAnimation extends AbstractAnimation {
-  private IPos dest;
-  private IPos origin;
+  private double fromX;
+  private double fromY;
+  private final double toX;
+  private final double toY;
 
   /**
    * The constructor only take in dest position.
@@ -23,45 +26,86 @@ public class MoveAnimation extends AbstractAnimation {
    * @param dest  the dest location of the shape will be moved to.
    */
   public MoveAnimation(int start, int end, IPos dest) {
-    super(start, end);
-    this.dest = dest;
+    this(start, end, Double.NaN, Double.NaN, dest.getX(), dest.getY());
   }
 
   /**
    * The constructor take in both original position and the dest position.
    */
   public MoveAnimation(int start, int end, IPos origin, IPos dest) {
-    this(start, end, dest);
-    this.origin = origin;
+    this(start, end, origin.getX(), origin.getY(), dest.getX(), dest.getY());
+  }
+
+  /**
+   * The constructor take in both positions as coordinates, so no positions have to be made for it.
+   * If the original coordinates are NaN, the position of the shape is used, like for the
+   * constructor that only takes the dest position.
+   *
+   * @param start the start time of this animation.
+   * @param end   the end time of this animation.
+   * @param fromX the original x coordinate.
+   * @param fromY the original y coordinate.
+   * @param toX   the dest x coordinate.
+   * @param toY   the dest y coordinate.
+   */
+  public MoveAnimation(int start, int end, double fromX, double fromY, double toX, double toY) {
+    super(start, end);
+    this.fromX = fromX;
+    this.fromY = fromY;
+    this.toX = toX;
+    this.toY = toY;
   }
 
   @Override
   public void setShape(IAnimShape shape) {
     super.setShape(shape);
-    if (origin == null) {
-      origin = this.shape.getPos();
+    if (Double.isNaN(fromX)) {
+      fromX = this.shape.getPos().getX();
+      fromY = this.shape.getPos().getY();
     }
   }
 
   @Override
   public String changeText() {
-    return "moves from " + this.origin.toString() + " to " + this.dest.toString();
+    return "moves from (" + fromX + "," + fromY + ") to (" + toX + "," + toY + ")";
   }
 
   @Override
   public void apply() {
-    this.shape.move(this.dest);
+    this.shape.moveTo(toX, toY);
   }
 
   @Override
   public void apply(int time) {
     if (time > this.start && time <= this.end) {
-      double newX = this.curVal(time, origin.getX(), dest.getX());
-      double newY = this.curVal(time, origin.getY(), dest.getY());
-      this.shape.move(new Pos(newX, newY));
+      this.shape.moveTo(this.curVal(time, fromX, toX), this.curVal(time, fromY, toY));
+    }
+  }
+
+  @Override
+  public void applyTo(IAnimShape target, double time) {
+    if (time >= this.end) {
+      target.moveTo(toX, toY);
+    } else if (time <= this.start) {
+      target.moveTo(fromX, fromY);
+    } else {
+      target.moveTo(this.curVal(time, fromX, toX), this.curVal(time, fromY, toY));
     }
   }
 
+  @Override
+  public IAnimation copyFor(IAnimShape shape) {
+    MoveAnimation copy = new MoveAnimation(this.start, this.end, fromX, fromY, toX, toY);
+    copy.shape = shape;
+    return copy;
+  }
+
+  @Override
+  public void addTo(TweenModelBuilder<?> builder) {
+    builder.addMove(this.shape.getName(), (float) fromX, (float) fromY, (float) toX, (float) toY,
+            this.start, this.end);
+  }
+
   @Override
   public String getAttributeName(int index) {
     List<String> codNames = this.shape.getShape().getSvgShapeCods();
@@ -71,19 +115,29 @@ public class MoveAnimation extends AbstractAnimation {
   @Override
   public String fromValue(int index) {
     List<Double> formCods = new ArrayList<>();
-    formCods.add(origin.getX());
-    formCods.add(origin.getY());
+    formCods.add(fromX);
+    formCods.add(fromY);
     return "\"" + formCods.get(index) + "\"";
   }
 
   @Override
   public String toValue(int index) {
     List<Double> toCods = new ArrayList<>();
-    toCods.add(dest.getX());
-    toCods.add(dest.getY());
+    toCods.add(toX);
+    toCods.add(toY);
     return "\"" + toCods.get(index) + "\"";
   }
 
+  @Override
+  public StringBuilder appendFromValue(StringBuilder acc, int index, SvgFormat format) {
+    return format.appendNumber(acc, index == 0 ? fromX : fromY);
+  }
+
+  @Override
+  public StringBuilder appendToValue(StringBuilder acc, int index, SvgFormat format) {
+    return format.appendNumber(acc, index == 0 ? toX : toY);
+  }
+
   @Override
   public int totalAttributesNumber() {
     return 2;
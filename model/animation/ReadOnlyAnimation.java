@@ -0,0 +1,157 @@
+package cs3500.animator.model.animation;
+
+import java.util.List;
+
+import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.util.SvgFormat;
+import cs3500.animator.model.util.TweenModelBuilder;
+
+/**
+ * A read only view of an animation. Every getter answers from the animation it wraps, and every
+ * method that would change the animation or its shape throws an UnsupportedOperationException, so
+ * the animation can be handed out without anyone being able to change it through the view.
+ */
+public final class ReadOnlyAnimation implements IAnimation {
+  private final IAnimation animation;
+
+  /**
+   * Creates a read only view of the given animation.
+   *
+   * @param animation the animation to view
+   */
+  private ReadOnlyAnimation(IAnimation animation) {
+    this.animation = animation;
+  }
+
+  /**
+   * Gets a read only view of the given animation. Views are returned as they are.
+   *
+   * @param animation the animation to view
+   * @return a read only view of the animation
+   */
+  public static ReadOnlyAnimation of(IAnimation animation) {
+    if (animation instanceof ReadOnlyAnimation) {
+      return (ReadOnlyAnimation) animation;
+    }
+    return new ReadOnlyAnimation(animation);
+  }
+
+  @Override
+  public void setShape(IAnimShape shape) {
+    throw new UnsupportedOperationException("This animation cannot be changed.");
+  }
+
+  @Override
+  public int getStart() {
+    return this.animation.getStart();
+  }
+
+  @Override
+  public int getEnd() {
+    return this.animation.getEnd();
+  }
+
+  @Override
+  public IAnimShape getShape() {
+    return this.animation.getShape();
+  }
+
+  @Override
+  public int getShapeId() {
+    return this.animation.getShapeId();
+  }
+
+  @Override
+  public String toString() {
+    return this.animation.toString();
+  }
+
+  @Override
+  public String toString(int rate) {
+    return this.animation.toString(rate);
+  }
+
+  @Override
+  public String changeText() {
+    return this.animation.changeText();
+  }
+
+  @Override
+  public void apply() {
+    throw new UnsupportedOperationException("This animation cannot be changed.");
+  }
+
+  @Override
+  public void apply(int time) {
+    throw new UnsupportedOperationException("This animation cannot be changed.");
+  }
+
+  @Override
+  public void applyTo(IAnimShape target, double time) {
+    this.animation.applyTo(target, time);
+  }
+
+  /**
+   * Makes a mutable copy of the viewed animation for the given shape.
+   */
+  @Override
+  public IAnimation copyFor(IAnimShape shape) {
+    return this.animation.copyFor(shape);
+  }
+
+  @Override
+  public void addTo(TweenModelBuilder<?> builder) {
+    this.animation.addTo(builder);
+  }
+
+  @Override
+  public int compareTo(IAnimation o) {
+    return this.animation.compareTo(o);
+  }
+
+  @Override
+  public boolean conflicts(List<IAnimation> as) {
+    return this.animation.conflicts(as);
+  }
+
+  @Override
+  public String getAttributeName(int index) {
+    return this.animation.getAttributeName(index);
+  }
+
+  @Override
+  public String fromValue(int index) {
+    return this.animation.fromValue(index);
+  }
+
+  @Override
+  public String toValue(int index) {
+    return this.animation.toValue(index);
+  }
+
+  @Override
+  public StringBuilder appendFromValue(StringBuilder acc, int index, SvgFormat format) {
+    return this.animation.appendFromValue(acc, index, format);
+  }
+
+  @Override
+  public StringBuilder appendToValue(StringBuilder acc, int index, SvgFormat format) {
+    return this.animation.appendToValue(acc, index, format);
+  }
+
+  @Override
+  public int totalAttributesNumber() {
+    return this.animation.totalAttributesNumber();
+  }
+
+  @Override
+  public String svgAnimationText(int rate, boolean isAbleToLoopBack) {
+    return this.animation.svgAnimationText(rate, isAbleToLoopBack);
+  }
+
+  @Override
+  public StringBuilder svgAnimationText(StringBuilder acc, int rate, boolean isAbleToLoopBack,
+                                        SvgFormat format) {
+    return this.animation.svgAnimationText(acc, rate, isAbleToLoopBack, format);
+  }
+}
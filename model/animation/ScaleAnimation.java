@@ -1,17 +1,23 @@
 package cs3500.animator.model.animation;
 
 
+import java.util.Arrays;
 import java.util.List;
 
 import cs3500.animator.model.shape.IAnimShape;
 import cs3500.animator.model.shape.IShape;
+import cs3500.animator.model.util.SvgFormat;
+import cs3500.animator.model.util.TweenModelBuilder;
 
 /**
- * Represents animations where the AnimShape's dimensions change.
+ * Represents animations where the AnimShape's dimensions change. The dimensions the shape scales
+ * from and then those it scales to are kept in a row of a column, which may be shared with other
+ * animations.
  */
 public class ScaleAnimation extends AbstractAnimation {
-  private double[] endDims;
-  private double[] startDims;
+  private final double[] dims;
+  private final int offset;
+  private final int count;
 
   /**
    * Creates a new ScaleAnimation which only take in end dimension.
@@ -21,8 +27,8 @@ public class ScaleAnimation extends AbstractAnimation {
    * @param endDims the dimensions to scale to
    */
   public ScaleAnimation(int start, int end, double... endDims) {
-    super(start, end);
-    this.endDims = endDims;
+    this(start, end, new double[2 * endDims.length], 0, endDims.length);
+    System.arraycopy(endDims, 0, this.dims, this.count, this.count);
   }
 
   /**
@@ -34,46 +40,116 @@ public class ScaleAnimation extends AbstractAnimation {
    */
   public ScaleAnimation(int start, int end, double[] startDims, double[] endDims) {
     this(start, end, endDims);
-    if (this.startDims == null) {
-      this.startDims = startDims;
-    }
+    System.arraycopy(startDims, 0, this.dims, 0, Math.min(startDims.length, this.count));
+  }
+
+  /**
+   * Creates a new ScaleAnimation which reads its dimensions from a column, the ones to scale from
+   * followed by the ones to scale to. The column is not copied, so that many animations can share
+   * one. The dimensions to scale from are taken from the shape once it is set, as with the other
+   * constructors, and written into the column.
+   *
+   * @param start  the time the animation starts
+   * @param end    the time the animation ends
+   * @param dims   the column holding the dimensions
+   * @param offset the index of the first dimension to scale from in the column
+   * @param count  the number of dimensions of the shape
+   */
+  public ScaleAnimation(int start, int end, double[] dims, int offset, int count) {
+    super(start, end);
+    this.dims = dims;
+    this.offset = offset;
+    this.count = count;
   }
 
   @Override
   public void setShape(IAnimShape shape) {
     super.setShape(shape);
-    this.startDims = shape.allDimensions();
-    if (endDims.length != startDims.length) {
+    try {
+      for (int i = 0; i < this.count; i++) {
+        this.dims[this.offset + i] = shape.getDimension(i);
+      }
+    } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Wrong number of dimensions.");
     }
   }
 
+  /**
+   * Gets a dimension to scale from.
+   *
+   * @param index the index of the dimension, in the order of allDimensions
+   * @return the dimension
+   */
+  private double from(int index) {
+    return this.dims[this.offset + index];
+  }
+
+  /**
+   * Gets a dimension to scale to.
+   *
+   * @param index the index of the dimension, in the order of allDimensions
+   * @return the dimension
+   */
+  private double to(int index) {
+    return this.dims[this.offset + this.count + index];
+  }
+
   @Override
   public String changeText() {
     // this creates a copy to get the new description of the IShape object without knowing
     // if the description of the rectangle has changed (may be a subclass)
     IShape copy = this.shape.getShape().copy();
-    copy.scale(endDims);
+    for (int i = 0; i < this.count; i++) {
+      copy.setDimension(i, this.to(i));
+    }
     return "scales from " + this.shape.getShape().dimensions() + " to " + copy.dimensions();
   }
 
   @Override
   public void apply() {
-    this.shape.scale(this.endDims);
+    for (int i = 0; i < this.count; i++) {
+      this.shape.setDimension(i, this.to(i));
+    }
   }
 
   @Override
   public void apply(int time) {
-    double[] newDims = new double[startDims.length];
     if (time > this.start && time <= this.end) {
-      for (int i = 0; i < startDims.length; i++) {
-        double newDim = this.curVal(time, startDims[i], endDims[i]);
-        newDims[i] = newDim;
+      for (int i = 0; i < this.count; i++) {
+        this.shape.setDimension(i, this.curVal(time, this.from(i), this.to(i)));
+      }
+    }
+  }
+
+  @Override
+  public void applyTo(IAnimShape target, double time) {
+    for (int i = 0; i < this.count; i++) {
+      if (time >= this.end) {
+        target.setDimension(i, this.to(i));
+      } else if (time <= this.start) {
+        target.setDimension(i, this.from(i));
+      } else {
+        target.setDimension(i, this.curVal(time, this.from(i), this.to(i)));
       }
-      this.shape.scale(newDims);
     }
   }
 
+  @Override
+  public IAnimation copyFor(IAnimShape shape) {
+    // the copy gets a column of its own, since its shape may be set and write into it
+    ScaleAnimation copy = new ScaleAnimation(this.start, this.end,
+            Arrays.copyOfRange(this.dims, this.offset, this.offset + 2 * this.count), 0,
+            this.count);
+    copy.shape = shape;
+    return copy;
+  }
+
+  @Override
+  public void addTo(TweenModelBuilder<?> builder) {
+    builder.addScaleToChange(this.shape.getName(), (float) this.from(0), (float) this.from(1),
+            (float) this.to(0), (float) this.to(1), this.start, this.end);
+  }
+
   @Override
   public String getAttributeName(int index) {
     List<String> lenNames = this.shape.getShape().getSvgShapeLenNames();
@@ -82,18 +158,26 @@ public class ScaleAnimation extends AbstractAnimation {
 
   @Override
   public String fromValue(int index) {
-    double[] scalesFrom = startDims;
-    return "\"" + scalesFrom[index] + "\"";
+    return "\"" + this.from(index) + "\"";
   }
 
   @Override
   public String toValue(int index) {
-    double[] scalesTo = endDims;
-    return "\"" + scalesTo[index] + "\"";
+    return "\"" + this.to(index) + "\"";
+  }
+
+  @Override
+  public StringBuilder appendFromValue(StringBuilder acc, int index, SvgFormat format) {
+    return format.appendNumber(acc, this.from(index));
+  }
+
+  @Override
+  public StringBuilder appendToValue(StringBuilder acc, int index, SvgFormat format) {
+    return format.appendNumber(acc, this.to(index));
   }
 
   @Override
   public int totalAttributesNumber() {
-    return this.startDims.length;
+    return this.count;
   }
 }
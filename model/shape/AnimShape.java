@@ -1,25 +1,31 @@
 package cs3500.animator.model.shape;
 
 import java.awt.Color;
-import java.util.ArrayList;
 import java.util.Objects;
 import java.util.List;
 
+import cs3500.animator.model.util.SvgFormat;
 import cs3500.animator.model.util.Util;
 
 
 /**
- * Represents a single object in the animation.
+ * Represents a single object in the animation. The position is kept as two primitives and a color
+ * set by its components is only turned into a Color when it is asked for, so that animations can
+ * change the shape without allocating anything.
  */
 public class AnimShape implements IAnimShape {
   private final String name;
+  private int id;
   private Color color;
-  private IPos pos;
+  private float red;
+  private float green;
+  private float blue;
+  private double x;
+  private double y;
   private final int appears;
   private final int disappears;
   private final IShape shape;
   private final int layer;
-  private String allAttributesOriginalValues;
 
   /**
    * Creates a new AnimShape with the given parameters.
@@ -38,12 +44,13 @@ public class AnimShape implements IAnimShape {
       throw new IllegalArgumentException("Objects cannot appear or disappear at a t < 0.");
     }
     this.name = name;
+    this.id = -1;
     this.color = color;
-    this.pos = pos;
+    this.x = pos.getX();
+    this.y = pos.getY();
     this.appears = appears;
     this.disappears = disappears;
     this.shape = shape;
-    this.allAttributesOriginalValues = "";
     this.layer = layer;
   }
 
@@ -69,8 +76,10 @@ public class AnimShape implements IAnimShape {
    */
   private AnimShape(AnimShape other) {
     this.name = other.name;
-    this.color = other.color;
-    this.pos = other.getPos().copy();
+    this.id = other.id;
+    this.color = other.getColor();
+    this.x = other.x;
+    this.y = other.y;
     this.appears = other.appears;
     this.disappears = other.disappears;
     this.shape = other.shape.copy();
@@ -79,8 +88,10 @@ public class AnimShape implements IAnimShape {
 
   @Override
   public IAnimShape copy() {
-    return new AnimShape(name, color, pos, appears, disappears,
-            shape.copy());
+    AnimShape copy = new AnimShape(name, this.getColor(), this.getPos(), appears, disappears,
+            shape.copy(), layer);
+    copy.id = this.id;
+    return copy;
   }
 
   /**
@@ -93,6 +104,16 @@ public class AnimShape implements IAnimShape {
     return this.name;
   }
 
+  @Override
+  public int getId() {
+    return this.id;
+  }
+
+  @Override
+  public void setId(int id) {
+    this.id = id;
+  }
+
   /**
    * Gets the position of this animation object.
    *
@@ -100,7 +121,17 @@ public class AnimShape implements IAnimShape {
    */
   @Override
   public IPos getPos() {
-    return this.pos.copy();
+    return new Pos(this.x, this.y);
+  }
+
+  @Override
+  public double getX() {
+    return this.x;
+  }
+
+  @Override
+  public double getY() {
+    return this.y;
   }
 
   /**
@@ -110,6 +141,9 @@ public class AnimShape implements IAnimShape {
    */
   @Override
   public Color getColor() {
+    if (this.color == null) {
+      this.color = new Color(this.red, this.green, this.blue);
+    }
     return this.color;
   }
 
@@ -133,6 +167,11 @@ public class AnimShape implements IAnimShape {
     return this.shape.allDimensions();
   }
 
+  @Override
+  public double getDimension(int index) {
+    return this.shape.getDimension(index);
+  }
+
   /**
    * Gets the time of appearance of this shape in ticks.
    *
@@ -165,7 +204,14 @@ public class AnimShape implements IAnimShape {
    */
   @Override
   public void move(IPos dest) {
-    this.pos = dest;
+    this.x = dest.getX();
+    this.y = dest.getY();
+  }
+
+  @Override
+  public void moveTo(double x, double y) {
+    this.x = x;
+    this.y = y;
   }
 
   /**
@@ -178,6 +224,11 @@ public class AnimShape implements IAnimShape {
     this.shape.scale(measurements);
   }
 
+  @Override
+  public void setDimension(int index, double value) {
+    this.shape.setDimension(index, value);
+  }
+
   /**
    * Changes the color of this AnimShape to the given Color.
    *
@@ -188,16 +239,36 @@ public class AnimShape implements IAnimShape {
     this.color = color;
   }
 
+  @Override
+  public void changeColor(float red, float green, float blue) {
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+    this.color = null;
+  }
+
   /**
-   * Changes the visible aspects of this shape into those of the given shape.
+   * Changes the visible aspects of this shape into those of the given shape. Only primitives and
+   * the color of the given shape are copied, so that nothing is allocated when the model puts its
+   * shapes back into their initial states.
    *
    * @param other the shape to change into
    */
   @Override
   public void changeInto(IAnimShape other) {
-    this.move(other.getPos());
-    this.changeColor(other.getColor());
-    this.scale(other.allDimensions());
+    if (other instanceof AnimShape) {
+      AnimShape o = (AnimShape) other;
+      this.color = o.color;
+      this.red = o.red;
+      this.green = o.green;
+      this.blue = o.blue;
+    } else {
+      this.changeColor(other.getColor());
+    }
+    this.moveTo(other.getX(), other.getY());
+    // every shape has exactly two dimensions
+    this.shape.setDimension(0, other.getDimension(0));
+    this.shape.setDimension(1, other.getDimension(1));
   }
 
   @Override
@@ -220,8 +291,8 @@ public class AnimShape implements IAnimShape {
     String ans = "";
     ans += "Name: " + this.name + x;
     ans += "Type: " + this.shape.getType() + x;
-    ans += this.shape.posDesc() + ": " + this.pos.toString();
-    ans += ", " + this.shape.dimensions() + ", Color: " + Util.colString(this.color) + x;
+    ans += this.shape.posDesc() + ": " + this.getPos().toString();
+    ans += ", " + this.shape.dimensions() + ", Color: " + Util.colString(this.getColor()) + x;
     String appearsText;
     String disappearsText;
     // the following code is for getting rid of the decimal point if no decimals are necessary
@@ -280,35 +351,24 @@ public class AnimShape implements IAnimShape {
    */
   @Override
   public String getSvgAnimShapeText() {
-    StringBuilder animShapeText = new StringBuilder("");
-
-    animShapeText.append("<" + this.getShape().getSvgShape());
-    animShapeText.append(" id=" + "\"" + this.name + "\" ");
-    animShapeText.append(this.shape.getSvgShapeCods().get(0) + "=");
-    animShapeText.append("\"" + this.pos.getX() + "\" ");
-    animShapeText.append(this.shape.getSvgShapeCods().get(1) + "=");
-    animShapeText.append("\"" + this.pos.getY() + "\" ");
-    animShapeText.append(getSvgAnimDimensionsText());
-    animShapeText.append("fill=" + "\"" + "rgb" + Util.colRGBString(this.color) + "\"");
-    animShapeText.append(" visibility=\"hidden\"" + ">" + Util.newLine());
-
-    return animShapeText.toString();
+    return this.getSvgAnimShapeText(new StringBuilder(), SvgFormat.DEFAULT).toString();
   }
 
-  /**
-   * Return the svg text for all the dimensions for all the animation shapes.
-   *
-   * @return the svg text for all the dimensions for all the animation shapes.
-   */
-  private String getSvgAnimDimensionsText() {
-    String dimensionsText = "";
-    List<String> lenNumber = this.shape.getSvgShapeLenNames();
-
-    for (int i = 0; i < lenNumber.size(); i++) {
-      dimensionsText += this.shape.getSvgShapeLenNames().get(i) + "=";
-      dimensionsText += "\"" + this.shape.allDimensions()[i] + "\" ";
+  @Override
+  public StringBuilder getSvgAnimShapeText(StringBuilder acc, SvgFormat format) {
+    List<String> cods = this.shape.getSvgShapeCods();
+    acc.append("<").append(this.shape.getSvgShape());
+    acc.append(" id=\"").append(this.name).append("\" ");
+    format.appendNumber(acc.append(cods.get(0)).append("=\""), this.x).append("\" ");
+    format.appendNumber(acc.append(cods.get(1)).append("=\""), this.y).append("\" ");
+    List<String> lenNames = this.shape.getSvgShapeLenNames();
+    double[] dimensions = this.shape.allDimensions();
+    for (int i = 0; i < lenNames.size(); i++) {
+      format.appendNumber(acc.append(lenNames.get(i)).append("=\""), dimensions[i])
+              .append("\" ");
     }
-    return dimensionsText;
+    format.appendColor(acc.append("fill=\""), this.getColor()).append("\"");
+    return format.appendNewLine(acc.append(" visibility=\"hidden\">"));
   }
 
   /**
@@ -320,7 +380,13 @@ public class AnimShape implements IAnimShape {
    */
   @Override
   public String setVisibility(int rate, boolean isAbleToLoopBack) {
-    String text = "";
+    return this.setVisibility(new StringBuilder(), rate, isAbleToLoopBack, SvgFormat.DEFAULT)
+            .toString();
+  }
+
+  @Override
+  public StringBuilder setVisibility(StringBuilder acc, int rate, boolean isAbleToLoopBack,
+                                     SvgFormat format) {
     String loopBase;
     if (isAbleToLoopBack) {
       loopBase = "base.begin+";
@@ -328,15 +394,14 @@ public class AnimShape implements IAnimShape {
       loopBase = "";
     }
 
-    text += "<animate attributeType=\"xml\" attributeName=\"visibility\" to=\"visible\" ";
-    text += "begin=\"" + loopBase + ((double) this.appears / rate) * 1000 + "ms\" ";
-    text += "fill=\"freeze\" />" + Util.newLine();
+    format.openAnimate(acc).append(" attributeName=\"visibility\" to=\"visible\" ");
+    format.appendMillis(acc.append("begin=\"").append(loopBase), this.appears, rate).append('"');
+    format.closeEmpty(acc.append(" fill=\"freeze\""));
 
-    text += "<animate attributeType=\"xml\" attributeName=\"visibility\" to=\"hidden\" ";
-    text += "begin=\"" + loopBase + ((double) this.disappears / rate) * 1000 + "ms\" ";
-    text += "fill=\"freeze\" />" + Util.newLine();
-
-    return text;
+    format.openAnimate(acc).append(" attributeName=\"visibility\" to=\"hidden\" ");
+    format.appendMillis(acc.append("begin=\"").append(loopBase), this.disappears, rate)
+            .append('"');
+    return format.closeEmpty(acc.append(" fill=\"freeze\""));
   }
 
   /**
@@ -347,31 +412,35 @@ public class AnimShape implements IAnimShape {
    */
   @Override
   public StringBuilder getAllAttributesOriginalValues(StringBuilder acc) {
-    List<Double> posList = new ArrayList<Double>();
-    posList.add(pos.getX());
-    posList.add(pos.getY());
-    //allAttributesOriginalValues = "";
-    StringBuilder origValues = new StringBuilder("");
-    for (int i = 0; i < shape.getSvgShapeLenNames().size(); i++) {
-      origValues.append("<animate attributeType=\"xml\" begin=\"base.end\"").append(
-              " dur=\"100ms\" ").append(
-              "attributeName=").append("\"").append(shape.getSvgShapeLenNames().get(i)).append(
-              "\"").append(
-              " to=" + "\"").append(shape.allDimensions()[i]).append("\" fill=\"freeze\" />")
-              .append(Util.newLine());
+    return this.getAllAttributesOriginalValues(acc, SvgFormat.DEFAULT);
+  }
+
+  @Override
+  public StringBuilder getAllAttributesOriginalValues(StringBuilder acc, SvgFormat format) {
+    List<String> lenNames = this.shape.getSvgShapeLenNames();
+    double[] dimensions = this.shape.allDimensions();
+    for (int i = 0; i < lenNames.size(); i++) {
+      this.appendOriginalValue(acc, lenNames.get(i), format);
+      format.appendNumber(acc, dimensions[i]);
+      format.closeEmpty(acc.append("\" fill=\"freeze\""));
     }
-    for (int i = 0; i < shape.getSvgShapeCods().size(); i++) {
-      origValues.append("<animate attributeType=\"xml\" begin=\"base.end\"").append(
-              " dur=\"100ms\" ").append(
-              "attributeName=\"").append(shape.getSvgShapeCods().get(i)).append("\"").append(
-              " to=\"").append(posList.get(i)).append("\" fill=\"freeze\" />").append(Util
-              .newLine());
+    List<String> cods = this.shape.getSvgShapeCods();
+    for (int i = 0; i < cods.size(); i++) {
+      this.appendOriginalValue(acc, cods.get(i), format);
+      format.appendNumber(acc, i == 0 ? this.x : this.y);
+      format.closeEmpty(acc.append("\" fill=\"freeze\""));
     }
-    origValues.append("<animate attributeType=\"xml\" begin=\"base.end\" ").append(
-            "dur=\"100ms\" attributeName=\"fill\" to=\"").append("rgb").append(
-            Util.colRGBString(this.color)).append(
-            "\" fill=\"freeze\" />").append(Util.newLine());
-    allAttributesOriginalValues = origValues.toString();
-    return acc.append(allAttributesOriginalValues);
+    this.appendOriginalValue(acc, "fill", format);
+    format.appendColor(acc, this.getColor());
+    return format.closeEmpty(acc.append("\" fill=\"freeze\""));
+  }
+
+  /**
+   * Appends the start of an animate element that sets the given attribute back to its original
+   * value when the animation loops, up to the value itself.
+   */
+  private void appendOriginalValue(StringBuilder acc, String attributeName, SvgFormat format) {
+    format.openAnimate(acc).append(" begin=\"base.end\" dur=\"100ms\" attributeName=\"")
+            .append(attributeName).append("\" to=\"");
   }
 }
@@ -2,6 +2,8 @@ package cs3500.animator.model.shape;
 
 import java.awt.Color;
 
+import cs3500.animator.model.util.SvgFormat;
+
 public interface IAnimShape extends Comparable<IAnimShape> {
 
   /**
@@ -16,6 +18,22 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   String getName();
 
+  /**
+   * Gets the id of the name of this shape in the symbol table of the model it was added to. Shapes
+   * of the same model have the same id if and only if they have the same name, so the id can be
+   * compared and used as an array index instead of the name. Copies keep the id.
+   *
+   * @return the id, or -1 if this shape has not been added to a model
+   */
+  int getId();
+
+  /**
+   * Sets the id of the name of this shape, as given by the model it is added to.
+   *
+   * @param id the id of the name
+   */
+  void setId(int id);
+
   /**
    * Gets the position of this animation object.
    *
@@ -23,6 +41,20 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   IPos getPos();
 
+  /**
+   * Gets the x-coordinate of the position of this animation object, without making an IPos.
+   *
+   * @return the x-coordinate
+   */
+  double getX();
+
+  /**
+   * Gets the y-coordinate of the position of this animation object, without making an IPos.
+   *
+   * @return the y-coordinate
+   */
+  double getY();
+
   /**
    * Gets the color of this animation object. Note: Color is immutable according to the library.
    *
@@ -44,6 +76,14 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   double[] allDimensions();
 
+  /**
+   * Gets a single one of the dimensions of this shape, without making an array of all of them.
+   *
+   * @param index the index of the dimension, in the order of allDimensions
+   * @return the value of the dimension
+   */
+  double getDimension(int index);
+
   /**
    * Gets the time of appearance of this shape in ticks.
    *
@@ -71,6 +111,14 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   void move(IPos dest);
 
+  /**
+   * Moves this AnimShape to the given coordinates without allocating a Pos.
+   *
+   * @param x the new x-coordinate
+   * @param y the new y-coordinate
+   */
+  void moveTo(double x, double y);
+
   /**
    * Scales this AnimShape to the given measurements.
    *
@@ -78,6 +126,14 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   void scale(double... measurements);
 
+  /**
+   * Changes a single dimension of this AnimShape without allocating an array.
+   *
+   * @param index the index of the dimension, in the order of allDimensions
+   * @param value the new value of the dimension
+   */
+  void setDimension(int index, double value);
+
   /**
    * Changes the color of this AnimShape to the given Color.
    *
@@ -85,6 +141,16 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   void changeColor(Color color);
 
+  /**
+   * Changes the color of this AnimShape to the one with the given components, each between 0 and 1,
+   * without allocating a Color.
+   *
+   * @param red   the red component
+   * @param green the green component
+   * @param blue  the blue component
+   */
+  void changeColor(float red, float green, float blue);
+
   /**
    * Changes the visible aspects of this shape into those of the given shape.
    *
@@ -108,6 +174,15 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   String getSvgAnimShapeText();
 
+  /**
+   * Appends the svg text for this shape like getSvgAnimShapeText, in the given svg format.
+   *
+   * @param acc    the accumulated StringBuilder
+   * @param format the format to write the text in
+   * @return the StringBuilder with the svg text for the shape appended
+   */
+  StringBuilder getSvgAnimShapeText(StringBuilder acc, SvgFormat format);
+
   /**
    * Sets the visibility of the shape and return the appropriate svg String.
    *
@@ -117,6 +192,19 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    */
   String setVisibility(int rate, boolean isAbleToLoopBack);
 
+  /**
+   * Appends the svg text that sets the visibility of the shape like setVisibility, in the given
+   * svg format.
+   *
+   * @param acc              the accumulated StringBuilder
+   * @param rate             the number of ticks in one second
+   * @param isAbleToLoopBack the boolean to decide loop back or not.
+   * @param format           the format to write the text in
+   * @return the StringBuilder with the svg text for the visibility appended
+   */
+  StringBuilder setVisibility(StringBuilder acc, int rate, boolean isAbleToLoopBack,
+                              SvgFormat format);
+
   /**
    * Gets the original values of all attributes.
    *
@@ -124,4 +212,14 @@ public interface IAnimShape extends Comparable<IAnimShape> {
    * @return the original values of all attributes.
    */
   StringBuilder getAllAttributesOriginalValues(StringBuilder acc);
+
+  /**
+   * Appends the original values of all attributes like getAllAttributesOriginalValues, in the
+   * given svg format.
+   *
+   * @param acc    the accumulated StringBuilder
+   * @param format the format to write the values in
+   * @return the StringBuilder with the original values appended
+   */
+  StringBuilder getAllAttributesOriginalValues(StringBuilder acc, SvgFormat format);
 }
@@ -40,6 +40,22 @@ public interface IShape {
    */
   void scale(double... measurements);
 
+  /**
+   * Changes a single one of this IShape's dimensions.
+   *
+   * @param index the index of the dimension, in the order of allDimensions
+   * @param value the new value of the dimension
+   */
+  void setDimension(int index, double value);
+
+  /**
+   * Gets a single one of this IShape's dimensions, without making an array of all of them.
+   *
+   * @param index the index of the dimension, in the order of allDimensions
+   * @return the value of the dimension
+   */
+  double getDimension(int index);
+
   /**
    * Returns all of this IShape's dimensions.
    *
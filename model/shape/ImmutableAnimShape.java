@@ -0,0 +1,217 @@
+package cs3500.animator.model.shape;
+
+import java.awt.Color;
+
+import cs3500.animator.model.util.SvgFormat;
+
+/**
+ * A read only record of the state of an AnimShape. Every getter answers from a private copy of the
+ * shape that was taken when the record was created, and every method that would change the shape
+ * throws an UnsupportedOperationException. Since a record can never change, it can be shared
+ * freely, e.g. between the frames of an animation in which the shape stays the same.
+ */
+public final class ImmutableAnimShape implements IAnimShape {
+  private final IAnimShape state;
+  private final Color color;
+
+  /**
+   * Creates a record of the current state of the given shape.
+   *
+   * @param shape the shape to record
+   */
+  private ImmutableAnimShape(IAnimShape shape) {
+    this.state = shape.copy();
+    // made here, since the copy may only make its color when it is first asked for
+    this.color = this.state.getColor();
+  }
+
+  /**
+   * Gets a read only record of the current state of the given shape. Records are returned as they
+   * are, because they cannot change.
+   *
+   * @param shape the shape to record
+   * @return a read only record of the shape
+   */
+  public static ImmutableAnimShape of(IAnimShape shape) {
+    if (shape instanceof ImmutableAnimShape) {
+      return (ImmutableAnimShape) shape;
+    }
+    return new ImmutableAnimShape(shape);
+  }
+
+  /**
+   * Makes a mutable copy of this record.
+   */
+  @Override
+  public IAnimShape copy() {
+    return this.state.copy();
+  }
+
+  @Override
+  public String getName() {
+    return this.state.getName();
+  }
+
+  @Override
+  public int getId() {
+    return this.state.getId();
+  }
+
+  @Override
+  public void setId(int id) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public IPos getPos() {
+    return this.state.getPos();
+  }
+
+  @Override
+  public double getX() {
+    return this.state.getX();
+  }
+
+  @Override
+  public double getY() {
+    return this.state.getY();
+  }
+
+  @Override
+  public Color getColor() {
+    return this.color;
+  }
+
+  @Override
+  public IShape getShape() {
+    return this.state.getShape();
+  }
+
+  @Override
+  public double[] allDimensions() {
+    return this.state.allDimensions();
+  }
+
+  @Override
+  public double getDimension(int index) {
+    return this.state.getDimension(index);
+  }
+
+  @Override
+  public int getAppears() {
+    return this.state.getAppears();
+  }
+
+  @Override
+  public int getDisappears() {
+    return this.state.getDisappears();
+  }
+
+  @Override
+  public int getLayer() {
+    return this.state.getLayer();
+  }
+
+  @Override
+  public void move(IPos dest) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public void moveTo(double x, double y) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public void scale(double... measurements) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public void setDimension(int index, double value) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public void changeColor(Color color) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public void changeColor(float red, float green, float blue) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public void changeInto(IAnimShape other) {
+    throw new UnsupportedOperationException("This shape cannot be changed.");
+  }
+
+  @Override
+  public String toString() {
+    return this.state.toString();
+  }
+
+  @Override
+  public String toString(int rate) {
+    return this.state.toString(rate);
+  }
+
+  @Override
+  public String getSvgAnimShapeText() {
+    return this.state.getSvgAnimShapeText();
+  }
+
+  @Override
+  public String setVisibility(int rate, boolean isAbleToLoopBack) {
+    return this.state.setVisibility(rate, isAbleToLoopBack);
+  }
+
+  @Override
+  public StringBuilder getSvgAnimShapeText(StringBuilder acc, SvgFormat format) {
+    return this.state.getSvgAnimShapeText(acc, format);
+  }
+
+  @Override
+  public StringBuilder setVisibility(StringBuilder acc, int rate, boolean isAbleToLoopBack,
+                                     SvgFormat format) {
+    return this.state.setVisibility(acc, rate, isAbleToLoopBack, format);
+  }
+
+  @Override
+  public StringBuilder getAllAttributesOriginalValues(StringBuilder acc) {
+    return this.state.copy().getAllAttributesOriginalValues(acc);
+  }
+
+  @Override
+  public StringBuilder getAllAttributesOriginalValues(StringBuilder acc, SvgFormat format) {
+    return this.state.copy().getAllAttributesOriginalValues(acc, format);
+  }
+
+  @Override
+  public int compareTo(IAnimShape o) {
+    return this.getAppears() - o.getAppears();
+  }
+
+  /**
+   * Two records are the same if they are of shapes with the same name.
+   *
+   * @param other object to compare this to
+   * @return equality or lack thereof
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof ImmutableAnimShape)) {
+      return false;
+    }
+    return this.getName().equals(((ImmutableAnimShape) other).getName());
+  }
+
+  @Override
+  public int hashCode() {
+    return this.getName().hashCode();
+  }
+}
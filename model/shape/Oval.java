@@ -53,6 +53,27 @@ public class Oval implements IShape {
     yRadius = measurements[1];
   }
 
+  @Override
+  public void setDimension(int index, double value) {
+    if (index == 0) {
+      xRadius = value;
+    } else if (index == 1) {
+      yRadius = value;
+    } else {
+      throw new IllegalArgumentException("Dimension must be x radius or y radius.");
+    }
+  }
+
+  @Override
+  public double getDimension(int index) {
+    if (index == 0) {
+      return xRadius;
+    } else if (index == 1) {
+      return yRadius;
+    }
+    throw new IllegalArgumentException("Dimension must be x radius or y radius.");
+  }
+
   @Override
   public double[] allDimensions() {
     return new double[]{xRadius, yRadius};
@@ -53,6 +53,27 @@ public class Rectangle implements IShape {
     this.height = measurements[1];
   }
 
+  @Override
+  public void setDimension(int index, double value) {
+    if (index == 0) {
+      this.width = value;
+    } else if (index == 1) {
+      this.height = value;
+    } else {
+      throw new IllegalArgumentException("Dimension must be width or height.");
+    }
+  }
+
+  @Override
+  public double getDimension(int index) {
+    if (index == 0) {
+      return width;
+    } else if (index == 1) {
+      return height;
+    }
+    throw new IllegalArgumentException("Dimension must be width or height.");
+  }
+
   @Override
   public double[] allDimensions() {
     double[] dims = {width, height};
@@ -0,0 +1,389 @@
+package cs3500.animator.model.shape;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import cs3500.animator.model.util.SvgFormat;
+
+/**
+ * Keeps the state of many shapes in parallel primitive arrays indexed by shape id, instead of one
+ * AnimShape object (with its own Pos, Color and IShape) per shape. The shapes are handed out as
+ * thin IAnimShape views over the arrays, so moving, scaling or recoloring them only writes
+ * primitives. Colors are stored packed as 8-bit RGB. Every shape has two rows of state: the one
+ * it is in now, and the one it started in, which is what the model changes it back into, so that
+ * changing a shape into its initial state only copies between the rows.
+ */
+public final class ShapeStore {
+  private static final byte RECTANGLE = 0;
+  private static final byte OVAL = 1;
+  private static final int CURRENT = 0;
+  private static final int INITIAL = 1;
+
+  private int size;
+  private String[] names;
+  private int[] symbols;
+  private byte[] kinds;
+  private double[] xs;
+  private double[] ys;
+  private double[] dims;
+  private int[] rgbs;
+  // the Color of every slot, made when it is first asked for and forgotten when the color changes
+  private Color[] colors;
+  private int[] layers;
+  private int[] appears;
+  private int[] disappears;
+
+  /**
+   * Creates an empty store.
+   */
+  public ShapeStore() {
+    this.size = 0;
+    this.names = new String[16];
+    this.symbols = new int[16];
+    this.kinds = new byte[16];
+    this.xs = new double[32];
+    this.ys = new double[32];
+    this.dims = new double[64];
+    this.rgbs = new int[32];
+    this.colors = new Color[32];
+    this.layers = new int[16];
+    this.appears = new int[16];
+    this.disappears = new int[16];
+  }
+
+  /**
+   * Gets the number of shapes in this store.
+   *
+   * @return the number of shapes
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Adds a rectangle to this store.
+   *
+   * @param name       unique name of the shape
+   * @param x          x-coordinate of the lower left corner
+   * @param y          y-coordinate of the lower left corner
+   * @param width      width of the rectangle
+   * @param height     height of the rectangle
+   * @param color      color of the rectangle
+   * @param appears    the time the rectangle appears in the animation
+   * @param disappears the time the rectangle disappears in the animation
+   * @param layer      the layer the rectangle should be drawn on
+   * @return a view of the added rectangle
+   */
+  public IAnimShape addRectangle(String name, double x, double y, double width, double height,
+                                 Color color, int appears, int disappears, int layer) {
+    return this.add(RECTANGLE, name, x, y, width, height, color, appears, disappears, layer);
+  }
+
+  /**
+   * Adds an oval to this store.
+   *
+   * @param name       unique name of the shape
+   * @param x          x-coordinate of the center
+   * @param y          y-coordinate of the center
+   * @param xRadius    horizontal radius of the oval
+   * @param yRadius    vertical radius of the oval
+   * @param color      color of the oval
+   * @param appears    the time the oval appears in the animation
+   * @param disappears the time the oval disappears in the animation
+   * @param layer      the layer the oval should be drawn on
+   * @return a view of the added oval
+   */
+  public IAnimShape addOval(String name, double x, double y, double xRadius, double yRadius,
+                            Color color, int appears, int disappears, int layer) {
+    return this.add(OVAL, name, x, y, xRadius, yRadius, color, appears, disappears, layer);
+  }
+
+  private IAnimShape add(byte kind, String name, double x, double y, double d0, double d1,
+                         Color color, int appears, int disappears, int layer) {
+    if (appears < 0 || disappears < 0) {
+      throw new IllegalArgumentException("Objects cannot appear or disappear at a t < 0.");
+    }
+    if (d0 <= 0 || d1 <= 0) {
+      throw new IllegalArgumentException("Can't create a shape with non-positive dimensions.");
+    }
+    if (this.size == this.names.length) {
+      this.grow();
+    }
+    int id = this.size++;
+    this.names[id] = name;
+    this.symbols[id] = -1;
+    this.kinds[id] = kind;
+    for (int row = CURRENT; row <= INITIAL; row++) {
+      int slot = 2 * id + row;
+      this.xs[slot] = x;
+      this.ys[slot] = y;
+      this.dims[2 * slot] = d0;
+      this.dims[2 * slot + 1] = d1;
+      this.rgbs[slot] = color.getRGB();
+      this.colors[slot] = color;
+    }
+    this.layers[id] = layer;
+    this.appears[id] = appears;
+    this.disappears[id] = disappears;
+    return new ShapeView(this, id, CURRENT);
+  }
+
+  /**
+   * Gets a view of the state the given shape of this store was added in. Changing the shape does
+   * not change its initial state, and changing the shape into it only copies primitives.
+   *
+   * @param shape a shape added to this store
+   * @return a view of the initial state of the shape
+   * @throws IllegalArgumentException if the shape was not added to this store
+   */
+  public IAnimShape initialStateOf(IAnimShape shape) {
+    if (!(shape instanceof ShapeView) || ((ShapeView) shape).store != this) {
+      throw new IllegalArgumentException("The shape is not in this store.");
+    }
+    return new ShapeView(this, ((ShapeView) shape).id, INITIAL);
+  }
+
+  /**
+   * Doubles the capacity of all of the arrays.
+   */
+  private void grow() {
+    int capacity = this.names.length * 2;
+    this.names = Arrays.copyOf(this.names, capacity);
+    this.symbols = Arrays.copyOf(this.symbols, capacity);
+    this.kinds = Arrays.copyOf(this.kinds, capacity);
+    this.xs = Arrays.copyOf(this.xs, 2 * capacity);
+    this.ys = Arrays.copyOf(this.ys, 2 * capacity);
+    this.dims = Arrays.copyOf(this.dims, 4 * capacity);
+    this.rgbs = Arrays.copyOf(this.rgbs, 2 * capacity);
+    this.colors = Arrays.copyOf(this.colors, 2 * capacity);
+    this.layers = Arrays.copyOf(this.layers, capacity);
+    this.appears = Arrays.copyOf(this.appears, capacity);
+    this.disappears = Arrays.copyOf(this.disappears, capacity);
+  }
+
+  /**
+   * A flyweight IAnimShape that reads and writes one row of a ShapeStore, the current or the
+   * initial state of a shape. The position and color of the row are at slot 2 * id + row of their
+   * arrays, and its dimensions at twice that. Descriptions and SVG text are rare, so they are
+   * produced by a detached AnimShape copy.
+   */
+  private static final class ShapeView implements IAnimShape {
+    private final ShapeStore store;
+    private final int id;
+    private final int slot;
+
+    private ShapeView(ShapeStore store, int id, int row) {
+      this.store = store;
+      this.id = id;
+      this.slot = 2 * id + row;
+    }
+
+    @Override
+    public IAnimShape copy() {
+      IAnimShape copy = new AnimShape(this.getName(), this.getColor(), this.getPos(),
+              this.getAppears(), this.getDisappears(), this.getShape(), this.getLayer());
+      copy.setId(this.getId());
+      return copy;
+    }
+
+    @Override
+    public String getName() {
+      return store.names[id];
+    }
+
+    @Override
+    public int getId() {
+      return store.symbols[id];
+    }
+
+    @Override
+    public void setId(int symbol) {
+      store.symbols[id] = symbol;
+    }
+
+    @Override
+    public IPos getPos() {
+      return new Pos(store.xs[slot], store.ys[slot]);
+    }
+
+    @Override
+    public double getX() {
+      return store.xs[slot];
+    }
+
+    @Override
+    public double getY() {
+      return store.ys[slot];
+    }
+
+    @Override
+    public Color getColor() {
+      if (store.colors[slot] == null) {
+        store.colors[slot] = new Color(store.rgbs[slot]);
+      }
+      return store.colors[slot];
+    }
+
+    @Override
+    public IShape getShape() {
+      if (store.kinds[id] == OVAL) {
+        return new Oval(store.dims[2 * slot], store.dims[2 * slot + 1]);
+      }
+      return new Rectangle(store.dims[2 * slot], store.dims[2 * slot + 1]);
+    }
+
+    @Override
+    public double[] allDimensions() {
+      return new double[]{store.dims[2 * slot], store.dims[2 * slot + 1]};
+    }
+
+    @Override
+    public double getDimension(int index) {
+      if (index < 0 || index > 1) {
+        throw new IllegalArgumentException("The measurements need to be two dimensions only.");
+      }
+      return store.dims[2 * slot + index];
+    }
+
+    @Override
+    public int getAppears() {
+      return store.appears[id];
+    }
+
+    @Override
+    public int getDisappears() {
+      return store.disappears[id];
+    }
+
+    @Override
+    public int getLayer() {
+      return store.layers[id];
+    }
+
+    @Override
+    public void move(IPos dest) {
+      store.xs[slot] = dest.getX();
+      store.ys[slot] = dest.getY();
+    }
+
+    @Override
+    public void moveTo(double x, double y) {
+      store.xs[slot] = x;
+      store.ys[slot] = y;
+    }
+
+    @Override
+    public void scale(double... measurements) {
+      if (measurements.length != 2) {
+        throw new IllegalArgumentException("The measurements need to be two dimensions only.");
+      }
+      store.dims[2 * slot] = measurements[0];
+      store.dims[2 * slot + 1] = measurements[1];
+    }
+
+    @Override
+    public void setDimension(int index, double value) {
+      if (index < 0 || index > 1) {
+        throw new IllegalArgumentException("The measurements need to be two dimensions only.");
+      }
+      store.dims[2 * slot + index] = value;
+    }
+
+    @Override
+    public void changeColor(Color color) {
+      store.rgbs[slot] = color.getRGB();
+      store.colors[slot] = color;
+    }
+
+    @Override
+    public void changeColor(float red, float green, float blue) {
+      // packed the same way as new Color(red, green, blue).getRGB()
+      store.rgbs[slot] = 0xFF000000 | channel(red) << 16 | channel(green) << 8 | channel(blue);
+      store.colors[slot] = null;
+    }
+
+    private static int channel(float component) {
+      return (int) (component * 255 + 0.5);
+    }
+
+    @Override
+    public void changeInto(IAnimShape other) {
+      if (other instanceof ShapeView && ((ShapeView) other).store == this.store) {
+        int from = ((ShapeView) other).slot;
+        store.xs[slot] = store.xs[from];
+        store.ys[slot] = store.ys[from];
+        store.dims[2 * slot] = store.dims[2 * from];
+        store.dims[2 * slot + 1] = store.dims[2 * from + 1];
+        store.rgbs[slot] = store.rgbs[from];
+        store.colors[slot] = store.colors[from];
+        return;
+      }
+      this.moveTo(other.getX(), other.getY());
+      this.changeColor(other.getColor());
+      this.setDimension(0, other.getDimension(0));
+      this.setDimension(1, other.getDimension(1));
+    }
+
+    @Override
+    public String toString() {
+      return this.copy().toString();
+    }
+
+    @Override
+    public String toString(int rate) {
+      return this.copy().toString(rate);
+    }
+
+    @Override
+    public String getSvgAnimShapeText() {
+      return this.copy().getSvgAnimShapeText();
+    }
+
+    @Override
+    public String setVisibility(int rate, boolean isAbleToLoopBack) {
+      return this.copy().setVisibility(rate, isAbleToLoopBack);
+    }
+
+    @Override
+    public StringBuilder getSvgAnimShapeText(StringBuilder acc, SvgFormat format) {
+      return this.copy().getSvgAnimShapeText(acc, format);
+    }
+
+    @Override
+    public StringBuilder setVisibility(StringBuilder acc, int rate, boolean isAbleToLoopBack,
+                                       SvgFormat format) {
+      return this.copy().setVisibility(acc, rate, isAbleToLoopBack, format);
+    }
+
+    @Override
+    public StringBuilder getAllAttributesOriginalValues(StringBuilder acc) {
+      return this.copy().getAllAttributesOriginalValues(acc);
+    }
+
+    @Override
+    public StringBuilder getAllAttributesOriginalValues(StringBuilder acc, SvgFormat format) {
+      return this.copy().getAllAttributesOriginalValues(acc, format);
+    }
+
+    @Override
+    public int compareTo(IAnimShape o) {
+      return this.getAppears() - o.getAppears();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof ShapeView)) {
+        return false;
+      }
+      return this.getName().equals(((ShapeView) other).getName());
+    }
+
+    @Override
+    public int hashCode() {
+      return this.getName().hashCode();
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package cs3500.animator.model.util;
+
+import java.awt.Color;
+
+/**
+ * How the numbers, colors and elements of an svg document are written. The default format writes
+ * them as this program always has: numbers as Double.toString gives them, colors as rgb(r,g,b),
+ * and every element with its attributeType and on a line of its own. The minified format rounds
+ * numbers to a given number of decimals and leaves out the trailing zeros, writes colors as hex
+ * codes, leaves out the attributes that only repeat their default and puts no line breaks between
+ * elements. Numbers are written straight into the StringBuilder, without making a String for them.
+ */
+public final class SvgFormat {
+
+  /**
+   * The format svg documents have always been written in.
+   */
+  public static final SvgFormat DEFAULT = new SvgFormat(false, 0);
+
+  /**
+   * The most decimals a minified format can round numbers to.
+   */
+  public static final int MAX_PRECISION = 9;
+
+  /**
+   * The fewest decimals key times are rounded to, since they are fractions of a whole animation.
+   */
+  private static final int KEY_TIME_PRECISION = 6;
+
+  private static final long[] POWERS_OF_TEN = {
+      1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L};
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final boolean minified;
+  private final int precision;
+
+  private SvgFormat(boolean minified, int precision) {
+    this.minified = minified;
+    this.precision = precision;
+  }
+
+  /**
+   * Gets a minified format that rounds numbers to the given number of decimals.
+   *
+   * @param precision the number of decimals to round numbers to
+   * @return the minified format
+   * @throws IllegalArgumentException if the precision is negative or more than MAX_PRECISION
+   */
+  public static SvgFormat minified(int precision) {
+    if (precision < 0 || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION
+              + ".");
+    }
+    return new SvgFormat(true, precision);
+  }
+
+  /**
+   * Checks if this is a minified format.
+   *
+   * @return true if this format is minified
+   */
+  public boolean isMinified() {
+    return this.minified;
+  }
+
+  /**
+   * Appends the given number.
+   *
+   * @param acc   the accumulated StringBuilder
+   * @param value the number to append
+   * @return the StringBuilder with the number appended
+   */
+  public StringBuilder appendNumber(StringBuilder acc, double value) {
+    if (!this.minified) {
+      return acc.append(value);
+    }
+    return appendRounded(acc, value, this.precision);
+  }
+
+  /**
+   * Appends the time of the given tick in milliseconds, with its unit.
+   *
+   * @param acc  the accumulated StringBuilder
+   * @param tick the tick to append the time of
+   * @param rate the number of ticks in one second
+   * @return the StringBuilder with the time appended
+   */
+  public StringBuilder appendMillis(StringBuilder acc, int tick, int rate) {
+    return this.appendNumber(acc, ((double) tick / rate) * 1000).append("ms");
+  }
+
+  /**
+   * Appends a key time of an animation, a fraction between 0 and 1 of its duration. Minified key
+   * times are rounded to at least six decimals, whatever the precision, since they are fractions of
+   * the whole animation.
+   *
+   * @param acc     the accumulated StringBuilder
+   * @param keyTime the key time to append
+   * @return the StringBuilder with the key time appended
+   */
+  public StringBuilder appendKeyTime(StringBuilder acc, double keyTime) {
+    if (!this.minified) {
+      return acc.append(keyTime);
+    }
+    return appendRounded(acc, keyTime, Math.max(this.precision, KEY_TIME_PRECISION));
+  }
+
+  /**
+   * Appends the color with the given components.
+   *
+   * @param acc   the accumulated StringBuilder
+   * @param red   the red component, between 0 and 1
+   * @param green the green component, between 0 and 1
+   * @param blue  the blue component, between 0 and 1
+   * @return the StringBuilder with the color appended
+   */
+  public StringBuilder appendColor(StringBuilder acc, float red, float green, float blue) {
+    int r = (int) (red * 255);
+    int g = (int) (green * 255);
+    int b = (int) (blue * 255);
+    if (!this.minified) {
+      return acc.append("rgb(").append(r).append(',').append(g).append(',').append(b)
+              .append(')');
+    }
+    r = Math.max(0, Math.min(255, r));
+    g = Math.max(0, Math.min(255, g));
+    b = Math.max(0, Math.min(255, b));
+    acc.append('#');
+    if (r % 17 == 0 && g % 17 == 0 && b % 17 == 0) {
+      return acc.append(HEX_DIGITS[r / 17]).append(HEX_DIGITS[g / 17]).append(HEX_DIGITS[b / 17]);
+    }
+    return appendHex(appendHex(appendHex(acc, r), g), b);
+  }
+
+  /**
+   * Appends the given color.
+   *
+   * @param acc   the accumulated StringBuilder
+   * @param color the color to append
+   * @return the StringBuilder with the color appended
+   */
+  public StringBuilder appendColor(StringBuilder acc, Color color) {
+    float[] com = color.getColorComponents(null);
+    return this.appendColor(acc, com[0], com[1], com[2]);
+  }
+
+  /**
+   * Appends the start of an animate element, up to its first attribute.
+   *
+   * @param acc the accumulated StringBuilder
+   * @return the StringBuilder with the start of the element appended
+   */
+  public StringBuilder openAnimate(StringBuilder acc) {
+    return acc.append(this.minified ? "<animate" : "<animate attributeType=\"xml\"");
+  }
+
+  /**
+   * Appends the end of an element that has no content, and the line break after it.
+   *
+   * @param acc the accumulated StringBuilder
+   * @return the StringBuilder with the end of the element appended
+   */
+  public StringBuilder closeEmpty(StringBuilder acc) {
+    return this.appendNewLine(acc.append(this.minified ? "/>" : " />"));
+  }
+
+  /**
+   * Appends a line break between elements, which a minified format leaves out.
+   *
+   * @param acc the accumulated StringBuilder
+   * @return the StringBuilder with the line break appended
+   */
+  public StringBuilder appendNewLine(StringBuilder acc) {
+    return this.minified ? acc : acc.append(Util.newLine());
+  }
+
+  /**
+   * Appends the given number rounded to the given number of decimals, leaving out trailing zeros
+   * and the decimal point if nothing is left after it. Numbers too large to round this way are
+   * appended as they are.
+   */
+  private static StringBuilder appendRounded(StringBuilder acc, double value, int decimals) {
+    long scale = POWERS_OF_TEN[decimals];
+    double scaled = Math.abs(value) * scale;
+    if (!(scaled < Long.MAX_VALUE / 2)) {
+      return acc.append(value);
+    }
+    long rounded = Math.round(scaled);
+    if (rounded == 0) {
+      return acc.append('0');
+    }
+    if (value < 0) {
+      acc.append('-');
+    }
+    acc.append(rounded / scale);
+    long fraction = rounded % scale;
+    if (fraction == 0) {
+      return acc;
+    }
+    while (fraction % 10 == 0) {
+      fraction /= 10;
+      decimals--;
+    }
+    acc.append('.');
+    for (long digit = POWERS_OF_TEN[decimals - 1]; digit > fraction; digit /= 10) {
+      acc.append('0');
+    }
+    return acc.append(fraction);
+  }
+
+  /**
+   * Appends the given color component as two hex digits.
+   */
+  private static StringBuilder appendHex(StringBuilder acc, int component) {
+    return acc.append(HEX_DIGITS[(component >> 4) & 0xf]).append(HEX_DIGITS[component & 0xf]);
+  }
+}
@@ -0,0 +1,171 @@
+package cs3500.animator.model.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Gives every distinct name a small integer id, numbered from 0 in the order the names are first
+ * seen, so that names can be compared and used as array indices instead of being hashed and
+ * compared as Strings over and over. Every name is stored as a single String, and interning an
+ * equal name again gives back that same String. Names can also be interned straight from their
+ * UTF-8 bytes, which does not allocate anything for a name that was seen before.
+ */
+public final class SymbolTable {
+  private String[] names;
+  private int[] slots;
+  private int size;
+
+  /**
+   * Creates an empty symbol table.
+   */
+  public SymbolTable() {
+    this.names = new String[16];
+    this.slots = new int[32];
+    Arrays.fill(this.slots, -1);
+    this.size = 0;
+  }
+
+  /**
+   * Gets the number of names in this table, which is also the id the next new name gets.
+   *
+   * @return the number of names
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Gets the id of the given name, adding the name to this table if it is new.
+   *
+   * @param name the name to intern
+   * @return the id of the name
+   */
+  public int intern(String name) {
+    int slot = this.slotOf(name);
+    if (this.slots[slot] < 0) {
+      return this.add(slot, name);
+    }
+    return this.slots[slot];
+  }
+
+  /**
+   * Gets the id of the name with the given UTF-8 bytes, adding the name to this table if it is new.
+   * A String is only made if the name is new or not ASCII.
+   *
+   * @param utf8   the array holding the bytes of the name
+   * @param offset the index of the first byte of the name
+   * @param length the number of bytes of the name
+   * @return the id of the name
+   */
+  public int intern(byte[] utf8, int offset, int length) {
+    // the hash of an ASCII String is the same computed over its bytes
+    int hash = 0;
+    for (int i = offset; i < offset + length; i++) {
+      if (utf8[i] < 0) {
+        return this.intern(new String(utf8, offset, length, StandardCharsets.UTF_8));
+      }
+      hash = 31 * hash + utf8[i];
+    }
+    int mask = this.slots.length - 1;
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      int id = this.slots[slot];
+      if (id < 0) {
+        return this.add(slot, new String(utf8, offset, length, StandardCharsets.US_ASCII));
+      }
+      if (sameAscii(this.names[id], utf8, offset, length)) {
+        return id;
+      }
+    }
+  }
+
+  /**
+   * Gets the id of the given name without adding it.
+   *
+   * @param name the name to look up
+   * @return the id of the name, or -1 if it is not in this table
+   */
+  public int idOf(String name) {
+    return this.slots[this.slotOf(name)];
+  }
+
+  /**
+   * Gets the name with the given id.
+   *
+   * @param id the id of the name
+   * @return the name, the same String every time
+   * @throws IllegalArgumentException if no name has the given id
+   */
+  public String nameOf(int id) {
+    if (id < 0 || id >= this.size) {
+      throw new IllegalArgumentException("No name has the id " + id + ".");
+    }
+    return this.names[id];
+  }
+
+  /**
+   * Finds the slot of the given name, or the empty slot it would go into.
+   */
+  private int slotOf(String name) {
+    int mask = this.slots.length - 1;
+    for (int slot = spread(name.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+      int id = this.slots[slot];
+      if (id < 0 || this.names[id].equals(name)) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * Adds a new name into the given empty slot, growing the table if it gets half full.
+   */
+  private int add(int slot, String name) {
+    int id = this.size++;
+    if (id == this.names.length) {
+      this.names = Arrays.copyOf(this.names, 2 * id);
+    }
+    this.names[id] = name;
+    this.slots[slot] = id;
+    if (2 * this.size > this.slots.length) {
+      this.rehash();
+    }
+    return id;
+  }
+
+  /**
+   * Doubles the number of slots and puts every id back.
+   */
+  private void rehash() {
+    this.slots = new int[2 * this.slots.length];
+    Arrays.fill(this.slots, -1);
+    int mask = this.slots.length - 1;
+    for (int id = 0; id < this.size; id++) {
+      int slot = spread(this.names[id].hashCode()) & mask;
+      while (this.slots[slot] >= 0) {
+        slot = (slot + 1) & mask;
+      }
+      this.slots[slot] = id;
+    }
+  }
+
+  /**
+   * Mixes the high bits of a hash into the low ones that pick the slot.
+   */
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Checks if the given name is made of the given ASCII bytes.
+   */
+  private static boolean sameAscii(String name, byte[] utf8, int offset, int length) {
+    if (name.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (name.charAt(i) != utf8[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
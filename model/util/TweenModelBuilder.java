@@ -144,6 +144,81 @@ public interface TweenModelBuilder<T> {
   TweenModelBuilder<T> addScaleToChange(String name, float fromSx, float
           fromSy, float toSx, float toSy, int startTime, int endTime);
 
+  /**
+   * Move a whole batch of shapes at once, in order. The i-th move of the batch, for i from 0 up to
+   * count, moves the shape names[offset + i] from (values[valueOffset + 4i],
+   * values[valueOffset + 4i + 1]) to (values[valueOffset + 4i + 2], values[valueOffset + 4i + 3])
+   * between the ticks startTimes[offset + i] and endTimes[offset + i]. The batch has the same
+   * effect as the single moves, which is what this default implementation does, but builders may
+   * add it without making anything for each move that they do not keep.
+   *
+   * @param names       the names of the shapes to be moved
+   * @param startTimes  the time ticks at which the movements should start
+   * @param endTimes    the time ticks at which the movements should end
+   * @param offset      the index of the first move in names, startTimes and endTimes
+   * @param values      the initial and final positions of the moves, four values per move
+   * @param valueOffset the index of the first value of the first move in values
+   * @param count       the number of moves in the batch
+   */
+  default TweenModelBuilder<T> addMoves(String[] names, int[] startTimes, int[] endTimes,
+                                        int offset, float[] values, int valueOffset,
+                                        int count) {
+    for (int i = 0; i < count; i++) {
+      int v = valueOffset + 4 * i;
+      this.addMove(names[offset + i], values[v], values[v + 1], values[v + 2], values[v + 3],
+              startTimes[offset + i], endTimes[offset + i]);
+    }
+    return this;
+  }
+
+  /**
+   * Change the colors of a whole batch of shapes at once, in order. Works like addMoves, with six
+   * values per color change: the r, g and b-components of the old color followed by those of the
+   * new color.
+   *
+   * @param names       the names of the shapes whose colors change
+   * @param startTimes  the time ticks at which the color changes should start
+   * @param endTimes    the time ticks at which the color changes should end
+   * @param offset      the index of the first color change in names, startTimes and endTimes
+   * @param values      the old and new colors, six values per color change
+   * @param valueOffset the index of the first value of the first color change in values
+   * @param count       the number of color changes in the batch
+   */
+  default TweenModelBuilder<T> addColorChanges(String[] names, int[] startTimes, int[] endTimes,
+                                               int offset, float[] values, int valueOffset,
+                                               int count) {
+    for (int i = 0; i < count; i++) {
+      int v = valueOffset + 6 * i;
+      this.addColorChange(names[offset + i], values[v], values[v + 1], values[v + 2],
+              values[v + 3], values[v + 4], values[v + 5],
+              startTimes[offset + i], endTimes[offset + i]);
+    }
+    return this;
+  }
+
+  /**
+   * Change the extents of a whole batch of shapes at once, in order. Works like addMoves, with
+   * four values per change: the x and y extents to change from followed by those to change to.
+   *
+   * @param names       the names of the shapes whose extents change
+   * @param startTimes  the time ticks at which the changes should start
+   * @param endTimes    the time ticks at which the changes should end
+   * @param offset      the index of the first change in names, startTimes and endTimes
+   * @param values      the extents to change from and to, four values per change
+   * @param valueOffset the index of the first value of the first change in values
+   * @param count       the number of changes in the batch
+   */
+  default TweenModelBuilder<T> addScaleToChanges(String[] names, int[] startTimes,
+                                                 int[] endTimes, int offset, float[] values,
+                                                 int valueOffset, int count) {
+    for (int i = 0; i < count; i++) {
+      int v = valueOffset + 4 * i;
+      this.addScaleToChange(names[offset + i], values[v], values[v + 1], values[v + 2],
+              values[v + 3], startTimes[offset + i], endTimes[offset + i]);
+    }
+    return this;
+  }
+
   /**
    * Return the model built so far.
    *
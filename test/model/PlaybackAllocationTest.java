@@ -0,0 +1,163 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import cs3500.animator.model.animation.IAnimation;
+import cs3500.animator.model.shape.IAnimShape;
+
+/**
+ * Tests that playing an animation back allocates nothing once it is running: seeking, rewinding
+ * and sampling the shapes into copies only write primitives and colors that already exist. The
+ * bytes allocated by the thread are measured while every tick of a model with many moving,
+ * scaling and recoloring shapes is played.
+ */
+public class PlaybackAllocationTest {
+  private static final int SHAPES = 100;
+  private static final int TICKS = 500;
+  private static final int WARM_UP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+  // far less than a byte per tick, for anything the virtual machine may allocate on its own
+  private static final long SLACK = 64;
+  private static final java.lang.management.ThreadMXBean THREADS =
+          ManagementFactory.getThreadMXBean();
+
+  /**
+   * Builds a model where every shape moves, scales and changes color all the time.
+   */
+  private static IAnimationModel<IAnimShape, IAnimation> model(AnimationModel.Builder builder) {
+    for (int i = 0; i < SHAPES; i++) {
+      String name = "s" + i;
+      if (i % 2 == 0) {
+        builder.addRectangle(name, i, i, 10, 20, 1, 0, 0, 0, TICKS);
+      } else {
+        builder.addOval(name, i, i, 10, 20, 0, 1, 0, 0, TICKS);
+      }
+      for (int t = 0; t < TICKS; t += 50) {
+        builder.addMove(name, t, i, t + 50, i + 1, t, t + 49);
+        builder.addScaleToChange(name, 10, 20, 20, 10, t + 10, t + 40);
+        builder.addColorChange(name, 1, 0, 0, 0, 0, 1, t + 5, t + 45);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the number of bytes allocated by this thread so far. The bean is looked up only once,
+   * since looking it up allocates.
+   */
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) THREADS)
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Skips through every tick of the model, rewinding it in between.
+   */
+  private static void skipThrough(IAnimationModel<IAnimShape, IAnimation> model) {
+    for (int t = 0; t <= TICKS; t++) {
+      model.skipTo(t);
+      if (t % 100 == 0) {
+        model.rewind();
+      }
+    }
+  }
+
+  /**
+   * Samples every quarter of a tick of the model into the given copies of its shapes.
+   */
+  private static void sampleThrough(IAnimationModel<IAnimShape, IAnimation> model,
+                                    List<IAnimShape> frame) {
+    for (double t = 0; t <= TICKS; t += 0.25) {
+      model.sampleInto(frame, t);
+    }
+  }
+
+  /**
+   * Gets the fewest bytes the given playback allocates in a few rounds, after it has been run
+   * enough for the code it runs, and measuring itself, to be loaded and compiled. The fewest are
+   * taken since the virtual machine may allocate on the thread now and then on its own, as when
+   * it recompiles a method in the middle of a round.
+   */
+  private static long allocatedBy(Runnable playback) {
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      playback.run();
+    }
+    long fewest = Long.MAX_VALUE;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      long before = allocatedBytes();
+      playback.run();
+      fewest = Math.min(fewest, allocatedBytes() - before);
+    }
+    return fewest;
+  }
+
+  private static void assertSkippingAllocatesNothing(
+          IAnimationModel<IAnimShape, IAnimation> model) {
+    long allocated = allocatedBy(() -> skipThrough(model));
+    assertTrue("Skipping through the ticks allocated " + allocated + " bytes.",
+            allocated <= SLACK);
+  }
+
+  private static void assertSamplingAllocatesNothing(
+          IAnimationModel<IAnimShape, IAnimation> model) {
+    List<IAnimShape> frame = new ArrayList<>();
+    for (IAnimShape s : model.getOriginalShapesList()) {
+      frame.add(s.copy());
+    }
+    long allocated = allocatedBy(() -> sampleThrough(model, frame));
+    assertTrue("Sampling the ticks allocated " + allocated + " bytes.", allocated <= SLACK);
+  }
+
+  @Test
+  public void testSkipToAllocatesNothing() {
+    assumeTrue(THREADS instanceof com.sun.management.ThreadMXBean);
+    assertSkippingAllocatesNothing(model(AnimationModel.builder()));
+  }
+
+  @Test
+  public void testCompactSkipToAllocatesNothing() {
+    assumeTrue(THREADS instanceof com.sun.management.ThreadMXBean);
+    assertSkippingAllocatesNothing(model(AnimationModel.compactBuilder()));
+  }
+
+  @Test
+  public void testSampleIntoAllocatesNothing() {
+    assumeTrue(THREADS instanceof com.sun.management.ThreadMXBean);
+    assertSamplingAllocatesNothing(model(AnimationModel.builder()));
+  }
+
+  @Test
+  public void testCompactSampleIntoAllocatesNothing() {
+    assumeTrue(THREADS instanceof com.sun.management.ThreadMXBean);
+    assertSamplingAllocatesNothing(model(AnimationModel.compactBuilder()));
+  }
+
+  @Test
+  public void testSampleIntoMatchesSampleAt() {
+    IAnimationModel<IAnimShape, IAnimation> model = model(AnimationModel.builder());
+    List<IAnimShape> frame = new ArrayList<>();
+    for (IAnimShape s : model.getShapesList()) {
+      frame.add(s.copy());
+    }
+    for (double t = 0; t <= TICKS; t += 12.5) {
+      model.sampleInto(frame, t);
+      List<IAnimShape> sampled = model.sampleAt(t);
+      for (int i = 0; i < frame.size(); i++) {
+        IAnimShape expected = sampled.get(i);
+        IAnimShape actual = frame.get(i);
+        assertTrue(expected.getPos().getX() == actual.getX()
+                && expected.getPos().getY() == actual.getY()
+                && expected.allDimensions()[0] == actual.getDimension(0)
+                && expected.allDimensions()[1] == actual.getDimension(1)
+                && expected.getColor().equals(actual.getColor()));
+      }
+    }
+  }
+}
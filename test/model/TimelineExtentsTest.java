@@ -0,0 +1,69 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import cs3500.animator.model.animation.IAnimation;
+import cs3500.animator.model.shape.IAnimShape;
+
+/**
+ * Tests the extents of the timeline that the model keeps as shapes and animations are added, in
+ * particular the busiest tick, which must not cost memory or time in the length of the timeline.
+ */
+public class TimelineExtentsTest {
+
+  /**
+   * Adds a shape for each of the given names that lives for the whole of the given ticks.
+   */
+  private static AnimationModel.Builder shapes(int end, String... names) {
+    AnimationModel.Builder builder = AnimationModel.builder();
+    for (String name : names) {
+      builder.addRectangle(name, 0, 0, 10, 10, 1, 0, 0, 0, end);
+    }
+    return builder;
+  }
+
+  @Test(timeout = 10000)
+  public void testHugeEndTick() {
+    AnimationModel.Builder builder = shapes(1_100_000_000, "a", "b");
+    builder.addMove("a", 0, 0, 10, 10, 0, 50_000_000);
+    builder.addMove("b", 0, 0, 10, 10, 40_000_000, 1_100_000_000);
+    IAnimationModel<IAnimShape, IAnimation> model = builder.build();
+    assertEquals(1_100_000_000, model.endTime());
+    assertEquals(40_000_000, model.busiestTick());
+  }
+
+  @Test
+  public void testAnimationsRunUpToTheirEndTick() {
+    AnimationModel.Builder builder = shapes(100, "a", "b", "c");
+    builder.addMove("a", 0, 0, 10, 10, 0, 5);
+    builder.addMove("b", 0, 0, 10, 10, 5, 9);
+    builder.addMove("c", 0, 0, 10, 10, 10, 20);
+    assertEquals(5, builder.build().busiestTick());
+  }
+
+  @Test
+  public void testEarliestOfTheBusiestTicks() {
+    AnimationModel.Builder builder = shapes(100, "a", "b", "c", "d");
+    builder.addMove("a", 0, 0, 10, 10, 30, 40);
+    builder.addMove("b", 0, 0, 10, 10, 35, 50);
+    builder.addMove("c", 0, 0, 10, 10, 10, 20);
+    builder.addMove("d", 0, 0, 10, 10, 15, 25);
+    assertEquals(15, builder.build().busiestTick());
+  }
+
+  @Test
+  public void testBusiestTickAfterMoreAnimations() {
+    AnimationModel.Builder builder = shapes(100, "a", "b", "c");
+    IAnimationModel<IAnimShape, IAnimation> model = builder.build();
+    assertEquals(0, model.busiestTick());
+    builder.addMove("a", 0, 0, 10, 10, 20, 30);
+    assertEquals(20, model.busiestTick());
+    builder.addMove("b", 0, 0, 10, 10, 25, 60);
+    builder.addMove("c", 0, 0, 10, 10, 50, 70);
+    assertEquals(25, model.busiestTick());
+    builder.addMove("a", 0, 0, 10, 10, 55, 65);
+    assertEquals(55, model.busiestTick());
+  }
+}
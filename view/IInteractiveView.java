@@ -115,6 +115,13 @@ public interface IInteractiveView<S> extends IAnimationView<IAnimShape> {
    */
   void export();
 
+  /**
+   * Updates the view after shapes or animations were added to its model while it is shown. The
+   * slider and the animation are extended to the new end time, and new shapes get a check box and
+   * are shown.
+   */
+  void modelChanged();
+
   /**
    * Changes the background color of this animation to the specified color.
    *
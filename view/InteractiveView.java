@@ -6,9 +6,12 @@ import java.awt.Dimension;
 import java.awt.Color;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemListener;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.PrintStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.List;
 
@@ -26,7 +29,7 @@ import cs3500.animator.model.util.Util;
 public class InteractiveView extends VisualAnimationView
         implements IInteractiveView<InteractiveView.AnimationState> {
   private SvgAnimationView svg;
-  private String svgString;
+  private String lastExportPath;
   private JButton fasterButton;
   private JButton slowerButton;
   private JLabel speedLabel;
@@ -44,6 +47,8 @@ public class InteractiveView extends VisualAnimationView
   private JTextField speedInput;
 
   private JCheckBox[] checkBoxes;
+  private JPanel checkBoxPanel;
+  private List<ItemListener> itemListeners = new ArrayList<>();
 
   private JFrame errorMessageWindow = new JFrame();
 
@@ -64,7 +69,7 @@ public class InteractiveView extends VisualAnimationView
    */
   public InteractiveView(IAnimationModelReadOnly model, int rate, SvgAnimationView svg) {
     super(model, rate);
-    svgString = "";
+    lastExportPath = "";
     this.svg = svg;
     SVGBackGroundColor = "(255,255,255)";
     init();
@@ -153,10 +158,7 @@ public class InteractiveView extends VisualAnimationView
     // Add slider
     buttonsPanel.add(new JLabel("Animation Progress:"));
     this.scrubSlider = new JSlider(JSlider.HORIZONTAL, 0, this.model.endTime(), 0);
-    Hashtable labelTable = new Hashtable();
-    labelTable.put(new Integer(0), new JLabel("Start"));
-    labelTable.put(new Integer(this.model.endTime()), new JLabel("End"));
-    scrubSlider.setLabelTable(labelTable);
+    updateSliderLabels();
     scrubSlider.setPaintLabels(true);
     buttonsPanel.add(scrubSlider);
 
@@ -174,7 +176,7 @@ public class InteractiveView extends VisualAnimationView
     this.add(buttonsPanel, BorderLayout.EAST);
 
     //Add check boxes for selecting shapes.
-    JPanel checkBoxPanel = new JPanel();
+    checkBoxPanel = new JPanel();
     checkBoxPanel.setLayout(new GridLayout(10, 15));
     checkBoxPanel.setBorder(BorderFactory.createTitledBorder("Selecting Shapes!"));
 
@@ -183,10 +185,7 @@ public class InteractiveView extends VisualAnimationView
 
     //Go through all the shapes,name the check boxes with the same names as shapes.
     for (int i = 0; i < checkBoxes.length; i++) {
-      checkBoxes[i] = new JCheckBox(shapesList.get(i).getName());
-      checkBoxes[i].setSelected(true);
-      checkBoxes[i].setActionCommand(shapesList.get(i).getName());
-      checkBoxPanel.add(checkBoxes[i]);
+      checkBoxes[i] = addCheckBox(shapesList.get(i));
     }
 
     //Add scroll bar to the check box panel.
@@ -199,6 +198,33 @@ public class InteractiveView extends VisualAnimationView
   }
 
 
+  /**
+   * Labels the start and the end of the slider.
+   */
+  private void updateSliderLabels() {
+    Hashtable labelTable = new Hashtable();
+    labelTable.put(new Integer(0), new JLabel("Start"));
+    labelTable.put(new Integer(this.model.endTime()), new JLabel("End"));
+    scrubSlider.setLabelTable(labelTable);
+  }
+
+  /**
+   * Adds a selected check box named after the given shape to the check box panel.
+   *
+   * @param shape the shape to add the check box for.
+   * @return the check box.
+   */
+  private JCheckBox addCheckBox(IAnimShape shape) {
+    JCheckBox checkBox = new JCheckBox(shape.getName());
+    checkBox.setSelected(true);
+    checkBox.setActionCommand(shape.getName());
+    for (ItemListener itemListener : itemListeners) {
+      checkBox.addItemListener(itemListener);
+    }
+    checkBoxPanel.add(checkBox);
+    return checkBox;
+  }
+
   @Override
   public String viewText(boolean isAbleToLoopback, String SVGBackGroundColor) {
     return svg.viewText(this.loop, this.SVGBackGroundColor);
@@ -230,6 +256,7 @@ public class InteractiveView extends VisualAnimationView
    */
   @Override
   public void addItemListener(ItemListener itemListener) {
+    itemListeners.add(itemListener);
     for (JCheckBox checkBox : checkBoxes) {
       checkBox.addItemListener(itemListener);
     }
@@ -242,7 +269,11 @@ public class InteractiveView extends VisualAnimationView
 
   @Override
   public void setTime(int tick) {
-    this.time = tick;
+    // the slider follows the animation, so only a different tick means the user moved it
+    if (tick != this.time) {
+      this.time = tick;
+      this.exactTime = tick;
+    }
   }
 
   @Override
@@ -260,7 +291,6 @@ public class InteractiveView extends VisualAnimationView
     if (this.rate > 1000) {
       this.rate = 1000;
     }
-    this.timer.setDelay(1000 / this.rate);
     updateSpeedLabel();
     this.svg.setRate(this.rate);
   }
@@ -273,7 +303,6 @@ public class InteractiveView extends VisualAnimationView
     if (this.rate > 1) {
       this.rate /= 2;
     }
-    this.timer.setDelay(1000 / this.rate);
     updateSpeedLabel();
     this.svg.setRate(this.rate);
   }
@@ -299,8 +328,7 @@ public class InteractiveView extends VisualAnimationView
    */
   @Override
   public void resume() {
-
-    this.timer.start();
+    this.startTimer();
     this.resumeButton.setText("Resume");
   }
 
@@ -358,32 +386,28 @@ public class InteractiveView extends VisualAnimationView
       this.rate = 1000;
     }
     this.svg.setRate(this.rate);
-    this.timer.setDelay(1000 / this.rate);
     updateSpeedLabel();
   }
 
   /**
-   * Exports the svg of the animation to the specified file.
+   * Exports the svg of the animation to the specified file. The svg is written straight into the
+   * file as it is produced, so it is never held in memory as a whole.
    */
   @Override
   public void export() {
     //Synchronize the svg file speed to the current speed.
     this.svg.setShapesMap(this.visibleShapes);
 
-    PrintStream origOut = System.out; // this may or may not be the console
-    try {
-      PrintStream ps;
-      ps = new PrintStream(new FileOutputStream(exportInput.getText() + ".svg"));
-      System.setOut(ps);
-      exportResponse.setText("Exported to " + exportInput.getText());
-    } catch (FileNotFoundException e) {
+    String fileName = exportInput.getText() + ".svg";
+    try (OutputStream out = new FileOutputStream(fileName)) {
+      this.svg.writeTo(out, this.loop, SVGBackGroundColor);
+      out.write(Util.newLine().getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
       exportResponse.setText("Export unsuccessful");
       return;
     }
-    this.svgString = this.svg.viewText(this.loop, SVGBackGroundColor);
-    System.out.println(this.svgString);
-    System.setOut(origOut);
-
+    this.lastExportPath = fileName;
+    exportResponse.setText("Exported to " + exportInput.getText());
   }
 
   /**
@@ -395,8 +419,10 @@ public class InteractiveView extends VisualAnimationView
   public void toggleShape(IAnimShape shape) {
     if (this.visibleShapes.containsKey(shape.getName())) {
       visibleShapes.remove(shape.getName(), shape);
+      visibility.set(shape, false);
     } else {
       visibleShapes.put(shape.getName(), shape);
+      visibility.set(shape, true);
     }
   }
 
@@ -405,6 +431,32 @@ public class InteractiveView extends VisualAnimationView
     this.setVisible(true);
   }
 
+  /**
+   * Extends the slider and the animation to the new end time, and adds a check box for every shape
+   * that was added to the model. The new shapes are shown right away.
+   */
+  @Override
+  public void modelChanged() {
+    this.animationsPanel.endTime = this.model.endTime();
+    this.animationsPanel.loadShapes();
+    this.scrubSlider.setMaximum(this.model.endTime());
+    updateSliderLabels();
+
+    List<IAnimShape> shapesList = model.getShapesList();
+    if (shapesList.size() > checkBoxes.length) {
+      int old = checkBoxes.length;
+      checkBoxes = Arrays.copyOf(checkBoxes, shapesList.size());
+      for (int i = old; i < checkBoxes.length; i++) {
+        IAnimShape shape = shapesList.get(i);
+        checkBoxes[i] = addCheckBox(shape);
+        visibleShapes.put(shape.getName(), shape);
+        visibility.set(shape, true);
+      }
+      checkBoxPanel.revalidate();
+    }
+    this.repaint();
+  }
+
   @Override
   public void changeBGColor(Color color) {
     this.animationsPanel.setBackground(color);
@@ -433,26 +485,26 @@ public class InteractiveView extends VisualAnimationView
     public final int rate;
     public final int time;
     public final int numOfShapes;
-    public final String svg;
+    public final String lastExportPath;
 
     /**
      * Creates an object to represent the current state of the animation.
      *
-     * @param isRunning   is the animation running
-     * @param isLooping   is the animation looping
-     * @param rate        the ticks per second of the animation
-     * @param time        the current time of the animation
-     * @param numOfShapes the number of shapes set to visible in the animation
-     * @param svg         the last exported svg string
+     * @param isRunning      is the animation running
+     * @param isLooping      is the animation looping
+     * @param rate           the ticks per second of the animation
+     * @param time           the current time of the animation
+     * @param numOfShapes    the number of shapes set to visible in the animation
+     * @param lastExportPath the path of the file the svg was last exported to, empty if none
      */
     public AnimationState(boolean isRunning, boolean isLooping, int rate, int time,
-                          int numOfShapes, String svg) {
+                          int numOfShapes, String lastExportPath) {
       this.isRunning = isRunning;
       this.isLooping = isLooping;
       this.rate = rate;
       this.time = time;
       this.numOfShapes = numOfShapes;
-      this.svg = svg;
+      this.lastExportPath = lastExportPath;
     }
   }
 
@@ -464,6 +516,6 @@ public class InteractiveView extends VisualAnimationView
   @Override
   public AnimationState getViewState() {
     return new AnimationState(timer.isRunning(), loop, rate, time,
-            visibleShapes.size(), svgString);
+            visibleShapes.size(), lastExportPath);
   }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package cs3500.animator.view;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import cs3500.animator.model.shape.IAnimShape;
+
+/**
+ * Which shapes of a model are shown, kept as a flag per shape id, so that checking a shape while
+ * drawing or exporting is an array read instead of a lookup of its name.
+ */
+final class ShapeVisibility {
+  private boolean[] visible;
+
+  /**
+   * Creates a visibility in which exactly the given shapes are shown.
+   *
+   * @param visibleShapes the shapes to show, by name
+   */
+  ShapeVisibility(Map<String, IAnimShape> visibleShapes) {
+    this.visible = new boolean[visibleShapes.size()];
+    for (IAnimShape shape : visibleShapes.values()) {
+      this.set(shape, true);
+    }
+  }
+
+  /**
+   * Checks if the given shape is shown.
+   *
+   * @param shape the shape to check
+   * @return true if it is shown
+   */
+  boolean isVisible(IAnimShape shape) {
+    int id = shape.getId();
+    return id >= 0 && id < this.visible.length && this.visible[id];
+  }
+
+  /**
+   * Shows or hides the given shape.
+   *
+   * @param shape   the shape to show or hide
+   * @param visible whether to show it
+   */
+  void set(IAnimShape shape, boolean visible) {
+    int id = shape.getId();
+    if (id < 0) {
+      return;
+    }
+    if (id >= this.visible.length) {
+      this.visible = Arrays.copyOf(this.visible, Math.max(id + 1, 2 * this.visible.length));
+    }
+    this.visible[id] = visible;
+  }
+}
@@ -3,19 +3,56 @@ package cs3500.animator.view;
 import cs3500.animator.model.IAnimationModelReadOnly;
 import cs3500.animator.model.animation.IAnimation;
 import cs3500.animator.model.shape.IAnimShape;
+import cs3500.animator.model.util.SvgFormat;
 import cs3500.animator.model.util.Util;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Implementation  of the svg view of shape animations. This view can support shapes with multiple
- * animations.
+ * animations. The document can be written straight to a Writer, stream or channel, one shape at a
+ * time, so that only the text of a single shape is ever held in memory, however large the document
+ * gets. The text of the shapes can also be made by several threads at once, since the text of a
+ * shape does not depend on any other shape; it is still written in layer order, so the document is
+ * the same either way. The animations of each attribute of a shape can also be merged into a single
+ * animate element, which makes far smaller documents that browsers play more smoothly, and the
+ * shapes and animations can be written in a minified SvgFormat.
  */
 public class SvgAnimationView implements IAnimationView<IAnimShape> {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The number of shapes whose text is made by a single task when exporting in parallel.
+   */
+  private static final int SHAPES_PER_TASK = 64;
+
+  /**
+   * The number of tasks per thread that are made ahead of the one being written.
+   */
+  private static final int TASKS_PER_THREAD = 4;
+
   private IAnimationModelReadOnly<IAnimShape, IAnimation> model;
   private int rate;
   private HashMap<String, IAnimShape> shapesMap;
+  private ShapeVisibility visibility;
+  private int parallelism = 1;
+  private boolean mergeKeyframes = false;
+  private SvgFormat format = SvgFormat.DEFAULT;
   String x = Util.newLine();
 
   /**
@@ -28,12 +65,54 @@ public class SvgAnimationView implements IAnimationView<IAnimShape> {
     this.model = model;
     this.rate = rate;
     this.shapesMap = model.getShapes();
+    this.visibility = new ShapeVisibility(this.shapesMap);
+  }
+
+  /**
+   * Sets the number of threads that make the text of the shapes. With more than one, the shapes are
+   * cut into runs of consecutive shapes, and the text of the runs is made on a ForkJoinPool while
+   * the runs before them are written. Only a few runs per thread are made ahead, so the memory used
+   * stays bounded however large the document gets.
+   *
+   * @param parallelism the number of threads to make the text with
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Sets whether the animations of each attribute of a shape are merged into a single animate
+   * element with a value and key time for each keyframe, as described in SvgKeyframeMerger,
+   * instead of being written with an animate element per animation and attribute.
+   *
+   * @param mergeKeyframes whether to merge the animations of each attribute
+   */
+  public void setMergeKeyframes(boolean mergeKeyframes) {
+    this.mergeKeyframes = mergeKeyframes;
+  }
+
+  /**
+   * Sets the format the shapes and their animations are written in, such as a minified format
+   * that rounds numbers and leaves out line breaks and default attributes.
+   *
+   * @param format the format to write the shapes and animations in
+   * @throws IllegalArgumentException if the format is null
+   */
+  public void setFormat(SvgFormat format) {
+    if (format == null) {
+      throw new IllegalArgumentException("The format cannot be null.");
+    }
+    this.format = format;
   }
 
   /**
    * Return a xml-based format string which include all the shapes information and animations for
-   * shapes in SVG text format. The calculation is done using StringBuilder and the String is only
-   * built at the end to improve performance, the background color can be changed.
+   * shapes in SVG text format. The document is written the same way as by writeTo, into a String,
+   * so for large animations writeTo should be used instead.
    *
    * @param isAbleToLoopback   the boolean to decide to loop back or not.
    * @param SVGBackGroundColor the given background color of the svg animation.
@@ -41,25 +120,79 @@ public class SvgAnimationView implements IAnimationView<IAnimShape> {
    */
   @Override
   public String viewText(boolean isAbleToLoopback, String SVGBackGroundColor) {
-    StringBuilder svgText = new StringBuilder("");
-    StringBuilder backGroundColor = new StringBuilder("<rect id=\"BG\" x=\"0\" y=\"0\" " +
+    StringWriter svgText = new StringWriter();
+    try {
+      this.writeTo(svgText, isAbleToLoopback, SVGBackGroundColor);
+    } catch (IOException e) {
+      // a StringWriter never throws
+      throw new IllegalStateException(e.getMessage());
+    }
+    return svgText.toString();
+  }
+
+  /**
+   * Writes the SVG document of the animation to the given Writer as it is produced: the canvas and
+   * the background first, then every visible shape along with its animations, one shape at a time.
+   * The Writer is neither flushed nor closed.
+   *
+   * @param out                the Writer to write the document to
+   * @param isAbleToLoopback   the boolean to decide to loop back or not.
+   * @param SVGBackGroundColor the given background color of the svg animation.
+   * @throws IOException if the document cannot be written
+   */
+  public void writeTo(Writer out, boolean isAbleToLoopback, String SVGBackGroundColor)
+          throws IOException {
+    StringBuilder svgText = new StringBuilder();
+    svgText = svgCanvasText(svgText).append(x);
+    svgText = setLoopBack(svgText, isAbleToLoopback);
+    svgText.append("<rect id=\"BG\" x=\"0\" y=\"0\" " +
             "width=\"10000.0\" height=\"10000.0\" fill=").append("\"rgb" +
             SVGBackGroundColor + "\"").append(
             " visibility=\"visible\">\n" + " </rect>" + x);
+    out.append(svgText);
+    writeShapes(out, svgText, isAbleToLoopback);
+    out.write("</svg>");
+  }
 
+  /**
+   * Writes the SVG document of the animation to the given stream, encoded as UTF-8, the same way as
+   * to a Writer. The stream is flushed but not closed.
+   *
+   * @param out                the stream to write the document to
+   * @param isAbleToLoopback   the boolean to decide to loop back or not.
+   * @param SVGBackGroundColor the given background color of the svg animation.
+   * @throws IOException if the document cannot be written
+   */
+  public void writeTo(OutputStream out, boolean isAbleToLoopback, String SVGBackGroundColor)
+          throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+            BUFFER_SIZE);
+    this.writeTo(writer, isAbleToLoopback, SVGBackGroundColor);
+    writer.flush();
+  }
 
-    svgText = svgCanvasText(svgText).append(x);
-    svgText = setLoopBack(svgText, isAbleToLoopback);
-    svgText = svgText.append(backGroundColor);
-    svgText = svgShapeText(svgText, isAbleToLoopback);
-    svgText.append("</svg>");
-    return svgText.toString();
+  /**
+   * Writes the SVG document of the animation to the given channel, encoded as UTF-8, the same way
+   * as to a Writer. The channel is not closed.
+   *
+   * @param out                the channel to write the document to
+   * @param isAbleToLoopback   the boolean to decide to loop back or not.
+   * @param SVGBackGroundColor the given background color of the svg animation.
+   * @throws IOException if the document cannot be written
+   */
+  public void writeTo(WritableByteChannel out, boolean isAbleToLoopback,
+                      String SVGBackGroundColor) throws IOException {
+    this.writeTo(Channels.newOutputStream(out), isAbleToLoopback, SVGBackGroundColor);
   }
 
   @Override
   public void start() {
-    System.out.println(this.viewText(false,
-            ""));
+    try {
+      this.writeTo(System.out, false, "");
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write the svg: " + e.getMessage());
+    }
+    System.out.println();
   }
 
   /**
@@ -75,31 +208,121 @@ public class SvgAnimationView implements IAnimationView<IAnimShape> {
   }
 
   /**
-   * Return the string represent all the shapes and their animations. This method will first set the
-   * visibility of the shapes depend on their appear time and disappear time. After that, it will
-   * add a shape to the current text and add all of it's animations. Then add another shape with
-   * it's on animations. It is also able to select the subset of all the shapes and animations
-   * depends on the user input.
+   * Writes all the shapes and their animations. This method will first set the visibility of the
+   * shapes depend on their appear time and disappear time. After that, it will add a shape to the
+   * text and add all of it's animations, and write the text of the shape out before going on to
+   * the next one. It is also able to select the subset of all the shapes and animations depends on
+   * the user input.
    *
-   * @param acc              currently accumulated StringBuilder
+   * @param out              the Writer to write the shapes to
+   * @param acc              the StringBuilder to put the text of each shape in, which is reused
    * @param isAbleToLoopBack loop or not
-   * @return the StringBuilder represent all the shapes and their animations.
+   * @throws IOException if the shapes cannot be written
    */
-  private StringBuilder svgShapeText(StringBuilder acc, boolean isAbleToLoopBack) {
+  private void writeShapes(Writer out, StringBuilder acc, boolean isAbleToLoopBack)
+          throws IOException {
     List<IAnimShape> shapes = this.model.getOriginalShapesList();
+    if (this.parallelism > 1 && shapes.size() > SHAPES_PER_TASK) {
+      writeShapesInParallel(out, shapes, isAbleToLoopBack);
+      return;
+    }
     for (IAnimShape aniShape : shapes) {
-      if (this.shapesMap.containsKey(aniShape.getName())) {
-        acc.append(aniShape.getSvgAnimShapeText());
-        acc.append(aniShape.setVisibility(this.rate, isAbleToLoopBack));
-        acc = svgAnimationsText(acc, aniShape, isAbleToLoopBack);
-        acc.append("</").append(aniShape.getShape().getSvgShape()).append(">").append(x);
+      if (this.visibility.isVisible(aniShape)) {
+        acc.setLength(0);
+        out.append(svgShapeText(acc, aniShape, isAbleToLoopBack));
       }
     }
-    return acc;
   }
 
   /**
-   * Return all the animations of a shape in svg text form.
+   * Writes the given shapes and their animations like writeShapes, but makes the text of runs of
+   * consecutive shapes on several threads. The runs are written in order, each as soon as it and
+   * the runs before it are done, while a bounded number of the runs after it are being made.
+   *
+   * @param out              the Writer to write the shapes to
+   * @param shapes           the shapes in the order to write them in
+   * @param isAbleToLoopBack loop or not
+   * @throws IOException if the shapes cannot be written
+   */
+  private void writeShapesInParallel(Writer out, List<IAnimShape> shapes,
+                                     boolean isAbleToLoopBack) throws IOException {
+    ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+    try {
+      Deque<Future<String>> pending = new ArrayDeque<>();
+      int ahead = this.parallelism * TASKS_PER_THREAD;
+      for (int from = 0; from < shapes.size(); from += SHAPES_PER_TASK) {
+        List<IAnimShape> run = shapes.subList(from,
+                Math.min(shapes.size(), from + SHAPES_PER_TASK));
+        pending.add(pool.submit(() -> this.svgRunText(run, isAbleToLoopBack)));
+        if (pending.size() > ahead) {
+          out.write(join(pending.poll()));
+        }
+      }
+      while (!pending.isEmpty()) {
+        out.write(join(pending.poll()));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Return the text of the visible shapes of the given run, one after the other.
+   *
+   * @param run              the shapes to make the text of
+   * @param isAbleToLoopBack loop or not
+   * @return the text of the visible shapes of the run
+   */
+  private String svgRunText(List<IAnimShape> run, boolean isAbleToLoopBack) {
+    StringBuilder acc = new StringBuilder();
+    for (IAnimShape aniShape : run) {
+      if (this.visibility.isVisible(aniShape)) {
+        acc = svgShapeText(acc, aniShape, isAbleToLoopBack);
+      }
+    }
+    return acc.toString();
+  }
+
+  /**
+   * Waits for the text of a run of shapes to be made.
+   *
+   * @param run the text of the run to wait for
+   * @return the text
+   */
+  private static String join(Future<String> run) {
+    try {
+      return run.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while making the svg.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Could not make the svg.", e.getCause());
+    }
+  }
+
+  /**
+   * Return a shape and all of its animations in svg text form, appended to the given text.
+   *
+   * @param acc              the accumulated StringBuilder
+   * @param aniShape         the shape in its initial state
+   * @param isAbleToLoopBack loop or not
+   * @return the StringBuilder with the shape appended
+   */
+  private StringBuilder svgShapeText(StringBuilder acc, IAnimShape aniShape,
+                                     boolean isAbleToLoopBack) {
+    acc = aniShape.getSvgAnimShapeText(acc, this.format);
+    acc = aniShape.setVisibility(acc, this.rate, isAbleToLoopBack, this.format);
+    acc = svgAnimationsText(acc, aniShape, isAbleToLoopBack);
+    acc.append("</").append(aniShape.getShape().getSvgShape()).append(">");
+    return this.format.appendNewLine(acc);
+  }
+
+  /**
+   * Return all the animations of a shape in svg text form. Only the animations of that shape are
+   * visited, so the whole export is a single pass over the animations.
    *
    * @param acc              the accumulated StringBuilder.
    * @param isAbleToLoopBack the boolean to decide to loop back or not.
@@ -107,13 +330,16 @@ public class SvgAnimationView implements IAnimationView<IAnimShape> {
    */
   private StringBuilder svgAnimationsText(StringBuilder acc, IAnimShape animShape, boolean
           isAbleToLoopBack) {
-    List<IAnimation> listOfAnimations = this.model.getAnimations();
-    for (IAnimation a : listOfAnimations) {
-      if (a.getShape().getName().equals(animShape.getName())) {
-        acc.append(a.svgAnimationText(this.rate, isAbleToLoopBack)).append(x);
+    List<IAnimation> animations = this.model.getAnimationsOf(animShape.getName());
+    if (this.mergeKeyframes) {
+      acc = SvgKeyframeMerger.append(acc, animations, this.rate, isAbleToLoopBack, this.format);
+    } else {
+      for (IAnimation a : animations) {
+        acc = a.svgAnimationText(acc, this.rate, isAbleToLoopBack, this.format);
+        acc = this.format.appendNewLine(acc);
       }
     }
-    acc = animShape.getAllAttributesOriginalValues(acc);
+    acc = animShape.getAllAttributesOriginalValues(acc, this.format);
     return acc;
   }
 
@@ -127,9 +353,10 @@ public class SvgAnimationView implements IAnimationView<IAnimShape> {
 
   private StringBuilder setLoopBack(StringBuilder acc, boolean isAbleToLoopBack) {
     if (isAbleToLoopBack) {
-      return acc.append("<rect>").append(x).append("<animate id=\"base\" begin=\"0;base.end\"")
-              .append(" dur=\"").append(((double) model.endTime() / this.rate) * 1000)
-              .append("ms\" attributeName=\"visibility\" from=\"hide\"").append(x).append(
+      acc.append("<rect>").append(x).append("<animate id=\"base\" begin=\"0;base.end\"")
+              .append(" dur=\"");
+      return this.format.appendMillis(acc, model.endTime(), this.rate)
+              .append("\" attributeName=\"visibility\" from=\"hide\"").append(x).append(
                       " to=\"hide\"/>").append(x).append("</rect>");
     } else {
       return acc;
@@ -144,6 +371,7 @@ public class SvgAnimationView implements IAnimationView<IAnimShape> {
   @Override
   public void setShapesMap(HashMap<String, IAnimShape> visibleShapes) {
     this.shapesMap = new HashMap<String, IAnimShape>(visibleShapes);
+    this.visibility = new ShapeVisibility(this.shapesMap);
   }
 
   /**
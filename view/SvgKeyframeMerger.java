@@ -0,0 +1,198 @@
+package cs3500.animator.view;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cs3500.animator.model.animation.IAnimation;
+import cs3500.animator.model.util.SvgFormat;
+
+/**
+ * Writes the animations of a shape in svg text form with a single animate element per attribute,
+ * instead of one per animation and attribute. The animations of an attribute become the keyframes
+ * of one linear animate, with the value it starts and ends at for each of them. The time between
+ * two animations becomes a segment that holds the value the first one ended at, with two keyframes
+ * at the same key time where the value then jumps to the one the second starts at. A shape with 500
+ * moves thus gets two animate elements, one for each coordinate, instead of a thousand, and plays
+ * the same.
+ */
+final class SvgKeyframeMerger {
+
+  /**
+   * An animation of one attribute.
+   */
+  private static final class Segment {
+    private final IAnimation animation;
+    private final int index;
+    private final int start;
+    private final int end;
+
+    private Segment(IAnimation animation, int index) {
+      this.animation = animation;
+      this.index = index;
+      this.start = animation.getStart();
+      this.end = animation.getEnd();
+    }
+  }
+
+  private SvgKeyframeMerger() {
+  }
+
+  /**
+   * Appends the given animations of a shape in svg text form, merged into one animate element per
+   * attribute. An attribute with a single animation, whose animations all happen at the same tick,
+   * or whose animations overlap, is written with an animate element per animation as before.
+   *
+   * @param acc              the accumulated StringBuilder
+   * @param animations       the animations of the shape
+   * @param rate             the number of ticks in one second
+   * @param isAbleToLoopBack loop or not
+   * @param format           the format to write the text in
+   * @return the StringBuilder with the animations appended
+   */
+  static StringBuilder append(StringBuilder acc, List<IAnimation> animations, int rate,
+                              boolean isAbleToLoopBack, SvgFormat format) {
+    List<IAnimation> byStart = new ArrayList<>(animations);
+    byStart.sort(Comparator.comparingInt(IAnimation::getStart));
+    Map<String, List<Segment>> attributes = new LinkedHashMap<>();
+    for (IAnimation a : byStart) {
+      for (int i = 0; i < a.totalAttributesNumber(); i++) {
+        attributes.computeIfAbsent(unquote(a.getAttributeName(i)), k -> new ArrayList<>())
+                .add(new Segment(a, i));
+      }
+    }
+    String loopBase = isAbleToLoopBack ? "base.begin+" : "";
+    for (Map.Entry<String, List<Segment>> attribute : attributes.entrySet()) {
+      List<Segment> segments = attribute.getValue();
+      if (canMerge(segments)) {
+        appendMerged(acc, attribute.getKey(), segments, rate, loopBase, format);
+      } else {
+        for (Segment s : segments) {
+          appendSingle(acc, attribute.getKey(), s, rate, loopBase, format);
+        }
+      }
+    }
+    return acc;
+  }
+
+  /**
+   * Checks if the given animations of an attribute can be written as one animate element.
+   */
+  private static boolean canMerge(List<Segment> segments) {
+    if (segments.size() < 2
+            || segments.get(0).start == segments.get(segments.size() - 1).end) {
+      return false;
+    }
+    for (int i = 1; i < segments.size(); i++) {
+      if (segments.get(i).start < segments.get(i - 1).end) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Appends a single linear animate element going through the values of all the given animations
+   * of an attribute. A keyframe that would repeat the one before it is left out, so two animations
+   * that follow each other without a gap share a keyframe. The values are written straight into
+   * the list of values, and where the last one is in it is kept to compare the next one with.
+   */
+  private static void appendMerged(StringBuilder acc, String attributeName,
+                                   List<Segment> segments, int rate, String loopBase,
+                                   SvgFormat format) {
+    int begin = segments.get(0).start;
+    int end = segments.get(segments.size() - 1).end;
+    double duration = end - begin;
+    StringBuilder values = new StringBuilder();
+    StringBuilder keyTimes = new StringBuilder();
+    int lastTick = -1;
+    int lastFrom = -1;
+    int lastTo = -1;
+    for (Segment s : segments) {
+      double keyTime = (s.start - begin) / duration;
+      if (lastFrom >= 0 && s.start != lastTick) {
+        // hold the value of the animation before until this one starts
+        int from = separate(values).length();
+        values.append(values, lastFrom, lastTo);
+        format.appendKeyTime(separate(keyTimes), keyTime);
+        lastFrom = from;
+        lastTo = values.length();
+        lastTick = s.start;
+      }
+      int mark = values.length();
+      int from = separate(values).length();
+      s.animation.appendFromValue(values, s.index, format);
+      if (s.start == lastTick && sameText(values, lastFrom, lastTo, from, values.length())) {
+        values.setLength(mark);
+      } else {
+        format.appendKeyTime(separate(keyTimes), keyTime);
+      }
+      from = separate(values).length();
+      s.animation.appendToValue(values, s.index, format);
+      format.appendKeyTime(separate(keyTimes), (s.end - begin) / duration);
+      lastFrom = from;
+      lastTo = values.length();
+      lastTick = s.end;
+    }
+    format.openAnimate(acc);
+    format.appendMillis(acc.append(" begin=\"").append(loopBase), begin, rate).append('"');
+    format.appendMillis(acc.append(" dur=\""), end - begin, rate).append('"');
+    acc.append(" attributeName=\"").append(attributeName).append('"');
+    acc.append(" values=\"").append(values).append('"');
+    acc.append(" keyTimes=\"").append(keyTimes).append('"');
+    if (!format.isMinified()) {
+      // linear is the default, so it is only there to be read
+      acc.append(" calcMode=\"linear\"");
+    }
+    format.closeEmpty(acc.append(" fill=\"freeze\""));
+  }
+
+  /**
+   * Appends the separator before the next value of a list, if it is not the first.
+   */
+  private static StringBuilder separate(StringBuilder list) {
+    return list.length() > 0 ? list.append(';') : list;
+  }
+
+  /**
+   * Checks if two parts of the given text are the same.
+   */
+  private static boolean sameText(StringBuilder text, int from1, int to1, int from2, int to2) {
+    if (to1 - from1 != to2 - from2) {
+      return false;
+    }
+    for (int i = 0; i < to1 - from1; i++) {
+      if (text.charAt(from1 + i) != text.charAt(from2 + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Appends the animate element of a single animation of an attribute, the same way
+   * AbstractAnimation writes it.
+   */
+  private static void appendSingle(StringBuilder acc, String attributeName, Segment s, int rate,
+                                   String loopBase, SvgFormat format) {
+    format.openAnimate(acc);
+    format.appendMillis(acc.append(" begin=\"").append(loopBase), s.start, rate).append('"');
+    format.appendMillis(acc.append(" dur=\""), s.end - s.start, rate).append('"');
+    acc.append(" attributeName=\"").append(attributeName).append('"');
+    s.animation.appendFromValue(acc.append(" from=\""), s.index, format).append('"');
+    s.animation.appendToValue(acc.append(" to=\""), s.index, format).append('"');
+    format.closeEmpty(acc.append(" fill=\"freeze\""));
+  }
+
+  /**
+   * Takes the quotes off an attribute name the way an animation gives it for svg text.
+   */
+  private static String unquote(String value) {
+    if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+      return value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+}
@@ -12,6 +12,7 @@ import javax.swing.JFrame;
 import javax.swing.JScrollPane;
 import javax.swing.Timer;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
@@ -23,6 +24,13 @@ import cs3500.animator.model.shape.IAnimShape;
  * Shows the animation visually when the program is run.
  */
 public class VisualAnimationView extends JFrame implements IAnimationView<IAnimShape> {
+  /**
+   * The number of frames drawn per second, independent of the rate of the animation. How far the
+   * animation advances in a frame depends on the time that actually passed since the frame before,
+   * not on this.
+   */
+  private static final int FRAME_RATE = 60;
+
   protected IAnimationModelReadOnly<IAnimShape, IAnimation> model;
   protected int rate;
   protected Timer timer;
@@ -30,8 +38,11 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
   private JScrollPane scrollPane;
   protected boolean loop;
   protected int time;
+  protected double exactTime;
+  private long lastFrameNanos;
 
   protected HashMap<String, IAnimShape> visibleShapes;
+  protected ShapeVisibility visibility;
 
   /**
    * The visual view takes in a read only model and the tempo. Drawing the animation depends on the
@@ -45,8 +56,9 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
     this.model = model;
     this.rate = rate;
     this.time = 0;
+    this.exactTime = 0;
 
-    this.timer = new Timer(1000 / this.rate, new ActionListener() {
+    this.timer = new Timer(1000 / FRAME_RATE, new ActionListener() {
       @Override
       public void actionPerformed(ActionEvent e) {
         advance();
@@ -54,6 +66,7 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
     });
     this.loop = false;
     this.visibleShapes = model.getShapes();
+    this.visibility = new ShapeVisibility(this.visibleShapes);
 
     this.setTitle("ShapeAnimations!");
     this.setSize(1000, 1000);
@@ -81,13 +94,23 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
 
   @Override
   public void start() {
-    timer.start();
+    this.startTimer();
     this.setVisible(true);
   }
 
+  /**
+   * Starts the timer that draws the frames, counting the time from now on, so that the time the
+   * timer was stopped does not advance the animation.
+   */
+  protected void startTimer() {
+    this.lastFrameNanos = System.nanoTime();
+    this.timer.start();
+  }
+
   @Override
   public void setShapesMap(HashMap<String, IAnimShape> visibleShapes) {
     this.visibleShapes = visibleShapes;
+    this.visibility = new ShapeVisibility(visibleShapes);
   }
 
   @Override
@@ -96,7 +119,7 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
   }
 
   /**
-   * Advances the animation forward by one tick.
+   * Advances the animation forward by one frame.
    */
   protected void advance() {
     animationsPanel.advance();
@@ -104,12 +127,14 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
   }
 
   /**
-   * Panel where the animation happens.
+   * Panel where the animation happens. It keeps a copy of every shape of the model, in the order
+   * they are drawn in, and every frame puts the copies into their state at the current time and
+   * draws them, so that drawing a frame allocates nothing for the shapes.
    */
   class AnimationPanel extends JPanel {
-    List<List<IAnimShape>> list;
-    List<List<List<IAnimShape>>> layeredList;
     int endTime;
+    private List<IAnimShape> frame;
+    private String[] types;
 
     public AnimationPanel() {
       super();
@@ -117,16 +142,34 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
       this.setBackground(Color.WHITE);
       this.setPreferredSize(new Dimension(1000, 1000));
       this.endTime = model.endTime();
+      this.loadShapes();
+    }
 
-      this.list = model.getShapesListAllTicks();
-      this.layeredList = model.getLayeredAllTicks();
+    /**
+     * Copies the shapes of the model to draw the frames with, lower layers first, and looks up the
+     * type of each of them once.
+     */
+    void loadShapes() {
+      List<IAnimShape> originals = model.getOriginalShapesList();
+      this.frame = new ArrayList<>(originals.size());
+      this.types = new String[originals.size()];
+      for (int i = 0; i < this.types.length; i++) {
+        IAnimShape copy = originals.get(i).copy();
+        this.frame.add(copy);
+        this.types[i] = copy.getShape().getType();
+      }
     }
 
     /**
-     * Advances time forward by one tick.
+     * Advances time forward by the ticks that passed at the current rate since the last frame. The
+     * timer does not fire exactly every frame, and drops frames when drawing is slow, so the time
+     * that passed is measured instead of assumed.
      */
     protected void advance() {
-      time++;
+      long now = System.nanoTime();
+      exactTime += (now - lastFrameNanos) / 1e9 * rate;
+      lastFrameNanos = now;
+      time = (int) exactTime;
     }
 
     /**
@@ -134,7 +177,8 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
      */
     protected void restart() {
       time = 0;
-      timer.start();
+      exactTime = 0;
+      startTimer();
     }
 
     @Override
@@ -148,22 +192,22 @@ public class VisualAnimationView extends JFrame implements IAnimationView<IAnimS
         return;
       }
 
-      for (List<IAnimShape> list : layeredList.get(time)) {
-        for (IAnimShape s : list) {
-          if (visibleShapes.containsKey(s.getName())) {
-            if (time >= s.getAppears() && time <= s.getDisappears()) {
-              g.setColor(s.getColor());
-              String shape = s.getShape().getType();
-              if (shape.equals("rectangle")) {
-                g.fillRect((int) s.getPos().getX(), (int) s.getPos().getY(),
-                        (int) s.allDimensions()[0], (int) s.allDimensions()[1]);
-              } else if (shape.equals("oval")) {
-                g.fillOval((int) (s.getPos().getX() - 0.5 * s.allDimensions()[0]),
-                        (int) (s.getPos().getY() + 0.5 * s.allDimensions()[1]),
-                        (int) s.allDimensions()[0], (int) s.allDimensions()[1]);
-              } else {
-                System.out.println(shape + " is not known.");
-              }
+      model.sampleInto(this.frame, exactTime);
+      for (int i = 0; i < this.frame.size(); i++) {
+        IAnimShape s = this.frame.get(i);
+        if (visibility.isVisible(s)) {
+          if (time >= s.getAppears() && time <= s.getDisappears()) {
+            g.setColor(s.getColor());
+            String shape = this.types[i];
+            if (shape.equals("rectangle")) {
+              g.fillRect((int) s.getX(), (int) s.getY(),
+                      (int) s.getDimension(0), (int) s.getDimension(1));
+            } else if (shape.equals("oval")) {
+              g.fillOval((int) (s.getX() - 0.5 * s.getDimension(0)),
+                      (int) (s.getY() + 0.5 * s.getDimension(1)),
+                      (int) s.getDimension(0), (int) s.getDimension(1));
+            } else {
+              System.out.println(shape + " is not known.");
             }
           }
         }